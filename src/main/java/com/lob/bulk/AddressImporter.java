@@ -0,0 +1,190 @@
+package com.lob.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.lob.model.Address;
+
+/**
+ * Creates addresses in bulk from a CSV or NDJSON source.
+ *
+ *     AddressImporter importer = new AddressImporter(apiKey, 16)
+ *             .mapColumn("Street", "address_line1")
+ *             .mapColumn("Zip", "address_zip");
+ *     ImportSummary summary = importer.importCsv(in, ImportSink.csv(out));
+ *
+ * CSV sources start with a header row; each column becomes the create param
+ * of the same name unless mapped otherwise, and empty cells are left out.
+ * NDJSON sources hold one JSON object of params per line.
+ *
+ * Rows are read one at a time and at most {@code concurrency} creates are in
+ * flight; reading pauses while that many are outstanding, so memory stays
+ * flat however large the source. Creates run on the client's async executor,
+ * so throughput grows with the connection pool. Each row's new address id,
+ * or the reason it failed, goes to the sink as soon as it is known; rows are
+ * numbered from 1, not counting the CSV header.
+ */
+public class AddressImporter {
+
+    private final String apiKey;
+    private final int concurrency;
+    private final Map<String, String> columns = new HashMap<String, String>();
+
+    public AddressImporter(String apiKey, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.apiKey = apiKey;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sends the CSV column named column as the create param named param.
+     */
+    public AddressImporter mapColumn(String column, String param) {
+        columns.put(column, param);
+        return this;
+    }
+
+    public ImportSummary importCsv(Reader csv, ImportSink sink) throws IOException {
+        CsvReader reader = new CsvReader(csv);
+        List<String> header = reader.readRecord();
+        Run run = new Run(sink);
+        if (header == null) {
+            return run.finish();
+        }
+        String[] params = new String[header.size()];
+        for (int i = 0; i < params.length; i++) {
+            String column = header.get(i).trim();
+            params[i] = columns.containsKey(column) ? columns.get(column) : column;
+        }
+        long row = 0;
+        for (List<String> record; (record = reader.readRecord()) != null;) {
+            row++;
+            Map<String, Object> create = new HashMap<String, Object>();
+            for (int i = 0; i < params.length && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (params[i] != null && params[i].length() > 0 && value.length() > 0) {
+                    create.put(params[i], value);
+                }
+            }
+            run.submit(row, create);
+        }
+        return run.finish();
+    }
+
+    public ImportSummary importNdjson(Reader ndjson, ImportSink sink) throws IOException {
+        BufferedReader reader = new BufferedReader(ndjson);
+        JsonParser parser = new JsonParser();
+        Run run = new Run(sink);
+        long row = 0;
+        for (String line; (line = reader.readLine()) != null;) {
+            if (line.trim().length() == 0) {
+                continue;
+            }
+            row++;
+            Map<String, Object> create;
+            try {
+                create = toParams(parser.parse(line).getAsJsonObject());
+            } catch (JsonParseException e) {
+                run.reject(row, "Invalid JSON: " + e.getMessage());
+                continue;
+            } catch (IllegalStateException e) {
+                run.reject(row, "Invalid JSON: expected an object");
+                continue;
+            }
+            run.submit(row, create);
+        }
+        return run.finish();
+    }
+
+    private static Map<String, Object> toParams(JsonObject object) {
+        Map<String, Object> params = new HashMap<String, Object>();
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            if (value.isJsonObject()) {
+                params.put(entry.getKey(), toParams(value.getAsJsonObject()));
+            } else if (value.isJsonPrimitive()) {
+                params.put(entry.getKey(), value.getAsString());
+            }
+        }
+        return params;
+    }
+
+    /*
+     * One import: bounds the creates in flight and serializes sink calls.
+     */
+    private class Run {
+        private final ImportSink sink;
+        private final Semaphore inFlight = new Semaphore(concurrency);
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private IOException sinkError;
+
+        Run(ImportSink sink) {
+            this.sink = sink;
+        }
+
+        void submit(final long row, Map<String, Object> params) throws IOException {
+            inFlight.acquireUninterruptibly();
+            checkSink();
+            Address.createAsync(params, apiKey).whenComplete((address, error) -> {
+                try {
+                    if (error == null) {
+                        succeeded.incrementAndGet();
+                        report(row, address.getId(), null);
+                    } else {
+                        failed.incrementAndGet();
+                        report(row, null, error.getMessage());
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        void reject(long row, String error) throws IOException {
+            failed.incrementAndGet();
+            report(row, null, error);
+            checkSink();
+        }
+
+        ImportSummary finish() throws IOException {
+            inFlight.acquireUninterruptibly(concurrency);
+            inFlight.release(concurrency);
+            checkSink();
+            return new ImportSummary(succeeded.get(), failed.get());
+        }
+
+        private synchronized void report(long row, String id, String error) {
+            if (sinkError != null) {
+                return;
+            }
+            try {
+                if (id != null) {
+                    sink.success(row, id);
+                } else {
+                    sink.failure(row, error);
+                }
+            } catch (IOException e) {
+                sinkError = e;
+            }
+        }
+
+        private synchronized void checkSink() throws IOException {
+            if (sinkError != null) {
+                throw sinkError;
+            }
+        }
+    }
+}
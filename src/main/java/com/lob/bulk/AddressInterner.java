@@ -0,0 +1,134 @@
+package com.lob.bulk;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.AuthenticationException;
+import com.lob.exception.InvalidRequestException;
+import com.lob.model.Address;
+import com.lob.net.AddressNormalizer;
+
+/**
+ * Creates each distinct address once and sends only its id afterwards.
+ *
+ *     AddressInterner interner = new AddressInterner(100000);
+ *     Postcard.create(interner.intern(postcardParams, apiKey), apiKey);
+ *
+ * Inline "to" and "from" maps are replaced by the id of an address created
+ * from them with {@code Address.create}. Addresses are matched on a SHA-256 of
+ * the API key and the {@link AddressNormalizer} form of their fields, so
+ * repeats that differ only in case, spacing or ZIP+4 reuse the first one
+ * created. Up to maxEntries ids are kept; beyond that the oldest are
+ * forgotten and would be created again.
+ */
+public class AddressInterner {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private static final List<String> ADDRESS_PARAMS = Arrays.asList("to", "from");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, String> ids = new ConcurrentHashMap<String, String>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<String>();
+    private final CreateOnce creates = new CreateOnce();
+
+    public AddressInterner() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public AddressInterner(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    int inFlightCount() {
+        return creates.inFlightCount();
+    }
+
+    /**
+     * The id of an address with these fields, creating it on first use.
+     */
+    public String addressId(Map<String, Object> address, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        String key = key(address, apiKey);
+        String id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        return creates.id(key, () -> {
+            // created by a caller that finished since the lookup above
+            String created = ids.get(key);
+            if (created == null) {
+                created = Address.create(address, apiKey).getId();
+                remember(key, created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * A copy of params with inline "to" and "from" addresses replaced by ids.
+     */
+    public Map<String, Object> intern(Map<String, Object> params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        Map<String, Object> interned = new HashMap<String, Object>(params);
+        for (String param : ADDRESS_PARAMS) {
+            if (params.get(param) instanceof Map<?, ?>) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> address = (Map<String, Object>) params.get(param);
+                interned.put(param, addressId(address, apiKey));
+            }
+        }
+        return interned;
+    }
+
+    public void clear() {
+        ids.clear();
+        insertionOrder.clear();
+    }
+
+    private void remember(String key, String id) {
+        ids.put(key, id);
+        insertionOrder.add(key);
+        while (ids.size() > maxEntries) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            ids.remove(eldest);
+        }
+    }
+
+    private static String key(Map<String, Object> address, String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // null means Lob.apiKey, whichever account that is right now
+            digest.update(String.valueOf(apiKey == null ? Lob.apiKey : apiKey).getBytes(UTF_8));
+            digest.update((byte) '\n');
+            byte[] hash = digest.digest(AddressNormalizer.normalize(address).getBytes(UTF_8));
+            // one char per digest byte: a 32-character key however long the address
+            return new String(hash, LATIN_1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.lob.bulk;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.AuthenticationException;
+import com.lob.exception.InvalidRequestException;
+
+/**
+ * Runs at most one create per key at a time.
+ *
+ * The first caller for a key runs the create; callers arriving while it is
+ * in flight wait for and share its id or exception. The key is forgotten as
+ * soon as the create completes, so a caller arriving after a failure starts
+ * a fresh one.
+ */
+class CreateOnce {
+
+    interface Create {
+        String create() throws AuthenticationException, InvalidRequestException,
+                APIConnectionException, APIException;
+    }
+
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight =
+            new ConcurrentHashMap<String, CompletableFuture<String>>();
+
+    String id(String key, Create create) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException, APIException {
+        CompletableFuture<String> future = new CompletableFuture<String>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, future);
+        if (leader != null) {
+            return await(leader);
+        }
+        String id = null;
+        Throwable failure = null;
+        try {
+            id = create.create();
+            return id;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            // removes only this create, and before completing it, so that a
+            // caller arriving now starts a fresh one
+            inFlight.remove(key, future);
+            if (failure == null) {
+                future.complete(id);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static String await(CompletableFuture<String> leader)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIConnectionException("Interrupted while waiting for a shared create", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AuthenticationException) {
+                throw (AuthenticationException) cause;
+            }
+            if (cause instanceof InvalidRequestException) {
+                throw (InvalidRequestException) cause;
+            }
+            if (cause instanceof APIConnectionException) {
+                throw (APIConnectionException) cause;
+            }
+            if (cause instanceof APIException) {
+                throw (APIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new APIConnectionException("Shared create failed", cause);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.lob.bulk;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Receives the outcome of each imported row, in completion order. Calls are
+ * never concurrent.
+ */
+public interface ImportSink {
+
+    void success(long row, String id) throws IOException;
+
+    void failure(long row, String error) throws IOException;
+
+    /**
+     * Writes "row,id,error" CSV lines to out.
+     */
+    static ImportSink csv(final Writer out) {
+        return new ImportSink() {
+            public void success(long row, String id) throws IOException {
+                out.write(row + "," + id + ",\n");
+            }
+
+            public void failure(long row, String error) throws IOException {
+                String quoted = error == null ? "" : "\"" + error.replace("\"", "\"\"") + "\"";
+                out.write(row + ",," + quoted + "\n");
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.lob.bulk;
+
+/**
+ * Counts of rows imported by an {@link AddressImporter} run.
+ */
+public class ImportSummary {
+    private final long succeeded;
+    private final long failed;
+
+    ImportSummary(long succeeded, long failed) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getTotal() {
+        return succeeded + failed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.lob.bulk;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import com.lob.net.APIResource;
+
+/**
+ * Writes records as newline-delimited JSON, one compact object per line.
+ *
+ *     try (NdjsonExporter exporter = new NdjsonExporter(new File("addresses.ndjson.gz"))) {
+ *         exporter.export(Address.iterateAll(params, apiKey));
+ *     }
+ *
+ * Each record is serialized straight into a buffered stream, with the same
+ * field names and date format the API uses, so memory use does not depend
+ * on the number of records. Combined with {@code iterateAll}, only the page
+ * being written is held in memory.
+ */
+public class NdjsonExporter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Writer writer;
+    private long count;
+
+    /**
+     * Writes to file, gzip-compressed when its name ends in ".gz".
+     */
+    public NdjsonExporter(File file) throws IOException {
+        this(new FileOutputStream(file), file.getName().endsWith(".gz"));
+    }
+
+    public NdjsonExporter(OutputStream out, boolean gzip) throws IOException {
+        OutputStream stream = new BufferedOutputStream(out, BUFFER_SIZE);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(stream, UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Number of records written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void write(Object record) throws IOException {
+        try {
+            APIResource.gson.toJson(record, record.getClass(), new JsonWriter(writer));
+        } catch (JsonIOException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        writer.write('\n');
+        count++;
+    }
+
+    /**
+     * Writes every remaining record and returns how many were written.
+     */
+    public long export(Iterator<?> records) throws IOException {
+        long written = 0;
+        while (records.hasNext()) {
+            write(records.next());
+            written++;
+        }
+        writer.flush();
+        return written;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes, finishes the gzip trailer if any, and closes the stream.
+     */
+    public void close() throws IOException {
+        writer.close();
+    }
+}
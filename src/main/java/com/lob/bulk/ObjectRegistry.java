@@ -0,0 +1,218 @@
+package com.lob.bulk;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.AuthenticationException;
+import com.lob.exception.InvalidRequestException;
+
+/**
+ * Uploads each distinct object once and hands out its id afterwards.
+ *
+ *     ObjectRegistry registry = new ObjectRegistry(new File("objects.tsv"));
+ *     jobParams.put("object1", registry.objectId(objectParams, apiKey));
+ *
+ * Objects are identified by a SHA-256 over the API key, the create params
+ * and, for an "@path" file, the file's contents (read in a streaming pass, so
+ * renaming or copying a file does not cause a re-upload, and editing it
+ * does). A file's digest is kept until its size or modification time
+ * changes, so reusing one creative across many jobs reads it once. The first request for an object creates it with
+ * {@code Object.create}; every later one, including in later runs, reuses the
+ * id. The mapping is appended to a local file as ids are learned; only
+ * digests are written, never API keys.
+ */
+public class ObjectRegistry {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // bounds the digest memo should a run edit files over and over
+    private static final int MAX_FILE_DIGESTS = 1024;
+
+    private final File file;
+    private final ConcurrentMap<String, String> ids = new ConcurrentHashMap<String, String>();
+    private final CreateOnce creates = new CreateOnce();
+    private final ConcurrentMap<String, String> fileDigests =
+            new ConcurrentHashMap<String, String>();
+
+    public ObjectRegistry(File file) throws IOException {
+        this.file = file;
+        if (file.exists()) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(file), UTF_8));
+            try {
+                for (String line; (line = reader.readLine()) != null;) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0) {
+                        ids.put(line.substring(0, tab), line.substring(tab + 1));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Number of objects known to the registry.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    int inFlightCount() {
+        return creates.inFlightCount();
+    }
+
+    /**
+     * The id of an object created from params, creating it on first use.
+     */
+    public String objectId(Map<String, Object> params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        String key = key(params, apiKey);
+        String id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        return creates.id(key, () -> {
+            // uploaded by a caller that finished since the lookup above
+            String created = ids.get(key);
+            if (created == null) {
+                created = com.lob.model.Object.create(params, apiKey).getId();
+                record(key, created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * A copy of jobParams in which every inline object (a nested map with a
+     * "file" param) is replaced by its registered id.
+     */
+    public Map<String, Object> resolve(Map<String, Object> jobParams,
+            String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        Map<String, Object> resolved = new HashMap<String, Object>(jobParams);
+        for (Map.Entry<String, Object> entry : jobParams.entrySet()) {
+            if (entry.getValue() instanceof Map<?, ?>
+                    && ((Map<?, ?>) entry.getValue()).containsKey("file")) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> object = (Map<String, Object>) entry.getValue();
+                resolved.put(entry.getKey(), objectId(object, apiKey));
+            }
+        }
+        return resolved;
+    }
+
+    private synchronized void record(String key, String id) throws APIException {
+        ids.put(key, id);
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), UTF_8);
+            try {
+                writer.write(key + "\t" + id + "\n");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new APIException("Object " + id + " was created but could not be recorded in "
+                    + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String key(Map<String, Object> params, String apiKey)
+            throws InvalidRequestException {
+        MessageDigest digest = sha256();
+        // resolved, so that the default key's ids are not shared with other accounts
+        digest.update(String.valueOf(apiKey == null ? Lob.apiKey : apiKey).getBytes(UTF_8));
+        for (Map.Entry<String, Object> entry
+                : new TreeMap<String, Object>(params).entrySet()) {
+            String value = String.valueOf(entry.getValue());
+            if ("file".equals(entry.getKey()) && value.startsWith("@")) {
+                value = "sha256:" + fileDigest(value.substring(1));
+            }
+            digest.update((entry.getKey() + "=" + value + "\n").getBytes(UTF_8));
+        }
+        return hex(digest.digest());
+    }
+
+    private String fileDigest(String path) throws InvalidRequestException {
+        File f = new File(path);
+        long lastModified = f.lastModified();
+        if (lastModified == 0) {
+            // missing or unreadable: let the read report it
+            return readDigest(path);
+        }
+        String stamp;
+        try {
+            stamp = f.getCanonicalPath() + "\n" + f.length() + "\n" + lastModified;
+        } catch (IOException e) {
+            throw new InvalidRequestException("Could not read " + path + ": " + e.getMessage(),
+                    "file", e);
+        }
+        String digest = fileDigests.get(stamp);
+        if (digest == null) {
+            // stamped before the read, so an edit during it is read again next time
+            digest = readDigest(path);
+            if (fileDigests.size() < MAX_FILE_DIGESTS) {
+                fileDigests.putIfAbsent(stamp, digest);
+            }
+        }
+        return digest;
+    }
+
+    private static String readDigest(String path) throws InvalidRequestException {
+        MessageDigest digest = sha256();
+        try {
+            InputStream in = new FileInputStream(path);
+            try {
+                byte[] buf = new byte[64 * 1024];
+                for (int n; (n = in.read(buf)) != -1;) {
+                    digest.update(buf, 0, n);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (FileNotFoundException e) {
+            throw new InvalidRequestException("File not found: " + path, "file", e);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Could not read " + path + ": " + e.getMessage(),
+                    "file", e);
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -4,8 +4,23 @@ public class APIException extends LobException {
 
 	private static final long serialVersionUID = 1L;
 
+	private final int statusCode;
+
 	public APIException(String message, Throwable e) {
+		this(message, 0, e);
+	}
+
+	public APIException(String message, int statusCode, Throwable e) {
 		super(message, e);
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * HTTP status of the Lob response that caused this, or 0 if there was
+	 * no response.
+	 */
+	public int getStatusCode() {
+		return statusCode;
 	}
 
 }
@@ -0,0 +1,11 @@
+package com.lob.exception;
+
+public class CircuitOpenException extends APIConnectionException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CircuitOpenException(String message) {
+		super(message);
+	}
+
+}
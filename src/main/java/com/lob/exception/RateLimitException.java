@@ -0,0 +1,11 @@
+package com.lob.exception;
+
+public class RateLimitException extends APIException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RateLimitException(String message) {
+		super(message, null);
+	}
+
+}
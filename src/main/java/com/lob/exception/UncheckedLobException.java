@@ -0,0 +1,20 @@
+package com.lob.exception;
+
+/**
+ * Wraps a LobException where the calling interface cannot declare it, such
+ * as {@code Iterator.next()}.
+ */
+public class UncheckedLobException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public UncheckedLobException(LobException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	@Override
+	public LobException getCause() {
+		return (LobException) super.getCause();
+	}
+
+}
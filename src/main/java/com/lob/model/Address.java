@@ -3,12 +3,15 @@ package com.lob.model;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Address extends APIResource {
     String id;
@@ -85,10 +88,14 @@ public class Address extends APIResource {
     public static Address retrieve(String id, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
-        return request(RequestMethod.GET, instanceURL(Address.class, id), null,
+        return conditionalRequest(instanceURL(Address.class, id),
                 Address.class, apiKey);
     }
 
+    public static CompletableFuture<Address> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Address create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -96,6 +103,20 @@ public class Address extends APIResource {
                     Address.class, apiKey);
     }
 
+    public static CompletableFuture<Address> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
+    public static Address create(AddressParams params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        return request(classURL(Address.class), params, Address.class, apiKey);
+    }
+
+    public static CompletableFuture<Address> createAsync(AddressParams params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static DeletedStatus delete(String id, String apiKey)
     throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -104,6 +125,10 @@ public class Address extends APIResource {
                 DeletedStatus.class, apiKey);
     }
 
+    public static CompletableFuture<DeletedStatus> deleteAsync(String id, String apiKey) {
+        return async(() -> delete(id, apiKey));
+    }
+
     public static AddressCollection all(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException, 
@@ -112,6 +137,23 @@ public class Address extends APIResource {
                 AddressCollection.class, apiKey);
     }
 
+    public static CompletableFuture<AddressCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Address> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Address.class), params, AddressCollection.class,
+                AddressCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Address> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Address.class), params, AddressCollection.class,
+                AddressCollection::getData, parallelism, ordered, apiKey);
+    }
+
     public static AddressCollection list(Integer count, Integer offset,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -123,11 +165,21 @@ public class Address extends APIResource {
                 AddressCollection.class, apiKey);
     }
 
+    public static CompletableFuture<AddressCollection> listAsync(Integer count, Integer offset,
+            String apiKey) {
+        return async(() -> list(count, offset, apiKey));
+    }
+
     public static Verify verify(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException, 
             APIException {
-        return request(RequestMethod.POST, singleClassURL(Verify.class), params,
+        return verifyRequest(singleClassURL(Verify.class), params,
                 Verify.class, apiKey);
     }
+
+    public static CompletableFuture<Verify> verifyAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> verify(params, apiKey));
+    }
 }
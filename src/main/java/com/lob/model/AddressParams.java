@@ -0,0 +1,80 @@
+package com.lob.model;
+
+import com.lob.net.RequestParams;
+
+/**
+ * Typed params for {@link Address#create(AddressParams, String)}, also used
+ * for an inline "to" or "from" address.
+ *
+ *     Address.create(new AddressParams()
+ *             .name("Lob HQ")
+ *             .address_line1("185 Berry St")
+ *             .address_city("San Francisco")
+ *             .address_state("CA")
+ *             .address_zip("94107"), apiKey);
+ */
+public class AddressParams extends RequestParams {
+
+    private static final int NAME = 0;
+    private static final int EMAIL = 1;
+    private static final int PHONE = 2;
+    private static final int ADDRESS_LINE1 = 3;
+    private static final int ADDRESS_LINE2 = 4;
+    private static final int ADDRESS_CITY = 5;
+    private static final int ADDRESS_STATE = 6;
+    private static final int ADDRESS_ZIP = 7;
+    private static final int ADDRESS_COUNTRY = 8;
+
+    private static final Fields FIELDS = new Fields("name", "email", "phone",
+            "address_line1", "address_line2", "address_city", "address_state",
+            "address_zip", "address_country");
+
+    public AddressParams() {
+        super(FIELDS);
+    }
+
+    public AddressParams name(String name) {
+        set(NAME, name);
+        return this;
+    }
+
+    public AddressParams email(String email) {
+        set(EMAIL, email);
+        return this;
+    }
+
+    public AddressParams phone(String phone) {
+        set(PHONE, phone);
+        return this;
+    }
+
+    public AddressParams address_line1(String address_line1) {
+        set(ADDRESS_LINE1, address_line1);
+        return this;
+    }
+
+    public AddressParams address_line2(String address_line2) {
+        set(ADDRESS_LINE2, address_line2);
+        return this;
+    }
+
+    public AddressParams address_city(String address_city) {
+        set(ADDRESS_CITY, address_city);
+        return this;
+    }
+
+    public AddressParams address_state(String address_state) {
+        set(ADDRESS_STATE, address_state);
+        return this;
+    }
+
+    public AddressParams address_zip(String address_zip) {
+        set(ADDRESS_ZIP, address_zip);
+        return this;
+    }
+
+    public AddressParams address_country(String address_country) {
+        set(ADDRESS_COUNTRY, address_country);
+        return this;
+    }
+}
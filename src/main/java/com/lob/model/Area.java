@@ -4,12 +4,15 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Area extends APIResource {
     String id;
@@ -75,6 +78,10 @@ public class Area extends APIResource {
                 Area.class, apiKey);
     }
 
+    public static CompletableFuture<Area> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Area create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -82,6 +89,10 @@ public class Area extends APIResource {
                     Area.class, apiKey);
     }
 
+    public static CompletableFuture<Area> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static AreaCollection list(Integer count, Integer offset,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -92,4 +103,21 @@ public class Area extends APIResource {
         return request(RequestMethod.GET, classURL(Area.class), params,
                 AreaCollection.class, apiKey);
     }
+
+    public static CompletableFuture<AreaCollection> listAsync(Integer count, Integer offset,
+            String apiKey) {
+        return async(() -> list(count, offset, apiKey));
+    }
+
+    public static PageIterator<Area> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Area.class), params, AreaCollection.class,
+                AreaCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Area> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Area.class), params, AreaCollection.class,
+                AreaCollection::getData, parallelism, ordered, apiKey);
+    }
 }
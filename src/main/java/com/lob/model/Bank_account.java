@@ -2,12 +2,15 @@ package com.lob.model;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Bank_account extends APIResource {
     String id;
@@ -64,10 +67,14 @@ public class Bank_account extends APIResource {
     public static Bank_account retrieve(String id, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
-        return request(RequestMethod.GET, instanceURL(Bank_account.class, id), null,
+        return conditionalRequest(instanceURL(Bank_account.class, id),
                 Bank_account.class, apiKey);
     }
 
+    public static CompletableFuture<Bank_account> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Bank_account create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -75,6 +82,10 @@ public class Bank_account extends APIResource {
                     Bank_account.class, apiKey);
     }
 
+    public static CompletableFuture<Bank_account> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static DeletedStatus delete(String id, String apiKey)
     throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -83,6 +94,10 @@ public class Bank_account extends APIResource {
                 DeletedStatus.class, apiKey);
     }
 
+    public static CompletableFuture<DeletedStatus> deleteAsync(String id, String apiKey) {
+        return async(() -> delete(id, apiKey));
+    }
+
     public static BankAccountCollection all(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -91,4 +106,21 @@ public class Bank_account extends APIResource {
                 BankAccountCollection.class, apiKey);
     }
 
+    public static CompletableFuture<BankAccountCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Bank_account> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Bank_account.class), params, BankAccountCollection.class,
+                BankAccountCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Bank_account> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Bank_account.class), params, BankAccountCollection.class,
+                BankAccountCollection::getData, parallelism, ordered, apiKey);
+    }
+
 }
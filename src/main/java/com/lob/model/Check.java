@@ -1,11 +1,14 @@
 package com.lob.model;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Check extends APIResource {
     String id;
@@ -56,6 +59,10 @@ public class Check extends APIResource {
                 Check.class, apiKey);
     }
 
+    public static CompletableFuture<Check> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Check create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -63,6 +70,20 @@ public class Check extends APIResource {
                     Check.class, apiKey);
     }
 
+    public static CompletableFuture<Check> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
+    public static Check create(CheckParams params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        return request(classURL(Check.class), params, Check.class, apiKey);
+    }
+
+    public static CompletableFuture<Check> createAsync(CheckParams params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static CheckCollection all(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -71,4 +92,21 @@ public class Check extends APIResource {
                 CheckCollection.class, apiKey);
     }
 
+    public static CompletableFuture<CheckCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Check> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Check.class), params, CheckCollection.class,
+                CheckCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Check> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Check.class), params, CheckCollection.class,
+                CheckCollection::getData, parallelism, ordered, apiKey);
+    }
+
 }
@@ -0,0 +1,75 @@
+package com.lob.model;
+
+import java.math.BigDecimal;
+
+import com.lob.net.RequestParams;
+
+/**
+ * Typed params for {@link Check#create(CheckParams, String)}.
+ *
+ * "to" takes either the id of a saved address or an inline
+ * {@link AddressParams}.
+ */
+public class CheckParams extends RequestParams {
+
+    private static final int NAME = 0;
+    private static final int CHECK_NUMBER = 1;
+    private static final int BANK_ACCOUNT = 2;
+    private static final int TO = 3;
+    private static final int AMOUNT = 4;
+    private static final int MESSAGE = 5;
+    private static final int MEMO = 6;
+
+    private static final Fields FIELDS = new Fields("name", "check_number",
+            "bank_account", "to", "amount", "message", "memo");
+
+    public CheckParams() {
+        super(FIELDS);
+    }
+
+    public CheckParams name(String name) {
+        set(NAME, name);
+        return this;
+    }
+
+    public CheckParams check_number(long check_number) {
+        set(CHECK_NUMBER, check_number);
+        return this;
+    }
+
+    public CheckParams bank_account(String bankAccountId) {
+        set(BANK_ACCOUNT, bankAccountId);
+        return this;
+    }
+
+    public CheckParams to(String addressId) {
+        set(TO, addressId);
+        return this;
+    }
+
+    public CheckParams to(AddressParams address) {
+        set(TO, address);
+        return this;
+    }
+
+    public CheckParams amount(BigDecimal amount) {
+        set(AMOUNT, amount == null ? null : amount.toPlainString());
+        return this;
+    }
+
+    public CheckParams amount(double amount) {
+        // "2000", not "2000.0" or "2E+3"
+        set(AMOUNT, BigDecimal.valueOf(amount).stripTrailingZeros().toPlainString());
+        return this;
+    }
+
+    public CheckParams message(String message) {
+        set(MESSAGE, message);
+        return this;
+    }
+
+    public CheckParams memo(String memo) {
+        set(MEMO, memo);
+        return this;
+    }
+}
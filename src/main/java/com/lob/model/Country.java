@@ -1,5 +1,7 @@
 package com.lob.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
@@ -32,8 +34,12 @@ public class Country extends APIResource {
 		throws AuthenticationException,
 			InvalidRequestException, APIConnectionException, 
 			APIException {
-		return request(RequestMethod.GET, classURL(Country.class), null,
+		return cachedRequest(classURL(Country.class),
 				CountryCollection.class, apiKey);
 	}
 
+	public static CompletableFuture<CountryCollection> allAsync(String apiKey) {
+		return async(() -> all(apiKey));
+	}
+
 }
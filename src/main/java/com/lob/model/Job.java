@@ -1,11 +1,14 @@
 package com.lob.model;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Job extends APIResource {
     String id;
@@ -88,6 +91,10 @@ public class Job extends APIResource {
                 Job.class, apiKey);
     }
 
+    public static CompletableFuture<Job> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Job create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -95,6 +102,20 @@ public class Job extends APIResource {
                     Job.class, apiKey);
     }
 
+    public static CompletableFuture<Job> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
+    public static Job create(JobParams params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        return request(classURL(Job.class), params, Job.class, apiKey);
+    }
+
+    public static CompletableFuture<Job> createAsync(JobParams params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static JobCollection all(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -103,4 +124,21 @@ public class Job extends APIResource {
                 JobCollection.class, apiKey);
     }
 
+    public static CompletableFuture<JobCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Job> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Job.class), params, JobCollection.class,
+                JobCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Job> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Job.class), params, JobCollection.class,
+                JobCollection::getData, parallelism, ordered, apiKey);
+    }
+
 }
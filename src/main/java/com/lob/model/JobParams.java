@@ -0,0 +1,100 @@
+package com.lob.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.lob.exception.InvalidRequestException;
+import com.lob.net.RequestParams;
+
+/**
+ * Typed params for {@link Job#create(JobParams, String)}.
+ *
+ * "to" and "from" take either the id of a saved address or an inline
+ * {@link AddressParams}. Each call to {@link #object(String)} adds the next
+ * of object1, object2, and so on.
+ */
+public class JobParams extends RequestParams {
+
+    private static final int NAME = 0;
+    private static final int TO = 1;
+    private static final int FROM = 2;
+    private static final int QUANTITY = 3;
+    private static final int PACKAGING = 4;
+    private static final int SERVICE = 5;
+
+    private static final Fields FIELDS = new Fields("name", "to", "from",
+            "quantity", "packaging", "service");
+
+    private static final String[] OBJECT_NAMES = new String[20];
+    static {
+        for (int i = 0; i < OBJECT_NAMES.length; i++) {
+            OBJECT_NAMES[i] = "object" + (i + 1);
+        }
+    }
+
+    private final List<String> objects = new ArrayList<String>(1);
+
+    public JobParams() {
+        super(FIELDS);
+    }
+
+    public JobParams name(String name) {
+        set(NAME, name);
+        return this;
+    }
+
+    public JobParams to(String addressId) {
+        set(TO, addressId);
+        return this;
+    }
+
+    public JobParams to(AddressParams address) {
+        set(TO, address);
+        return this;
+    }
+
+    public JobParams from(String addressId) {
+        set(FROM, addressId);
+        return this;
+    }
+
+    public JobParams from(AddressParams address) {
+        set(FROM, address);
+        return this;
+    }
+
+    public JobParams object(String objectId) {
+        objects.add(objectId);
+        return this;
+    }
+
+    public JobParams quantity(int quantity) {
+        set(QUANTITY, quantity);
+        return this;
+    }
+
+    public JobParams packaging(String packagingId) {
+        set(PACKAGING, packagingId);
+        return this;
+    }
+
+    public JobParams service(String serviceId) {
+        set(SERVICE, serviceId);
+        return this;
+    }
+
+    @Override
+    protected void writeTo(Map<String, String> body, String[] names)
+            throws InvalidRequestException {
+        super.writeTo(body, names);
+        for (int i = 0; i < objects.size(); i++) {
+            String name = i < OBJECT_NAMES.length ? OBJECT_NAMES[i] : "object" + (i + 1);
+            if (objects.get(i) == null || objects.get(i).length() == 0) {
+                throw new InvalidRequestException("Object " + (i + 1)
+                        + " needs the id of an object.", name, null);
+            }
+            body.put(name, objects.get(i));
+        }
+    }
+}
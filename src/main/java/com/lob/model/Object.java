@@ -1,12 +1,15 @@
 package com.lob.model;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Object extends APIResource {
     String id;
@@ -38,10 +41,14 @@ public class Object extends APIResource {
     public static Object retrieve(String id, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
-        return request(RequestMethod.GET, instanceURL(Object.class, id), null,
+        return conditionalRequest(instanceURL(Object.class, id),
                 Object.class, apiKey);
     }
 
+    public static CompletableFuture<Object> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Object create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -49,6 +56,10 @@ public class Object extends APIResource {
                     Object.class, apiKey);
     }
 
+    public static CompletableFuture<Object> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
     public static DeletedStatus delete(String id, String apiKey)
     throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
@@ -57,6 +68,10 @@ public class Object extends APIResource {
                 DeletedStatus.class, apiKey);
     }
 
+    public static CompletableFuture<DeletedStatus> deleteAsync(String id, String apiKey) {
+        return async(() -> delete(id, apiKey));
+    }
+
     public static ObjectCollection all(Map<String, java.lang.Object> params,
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
@@ -65,4 +80,21 @@ public class Object extends APIResource {
                 ObjectCollection.class, apiKey);
     }
 
+    public static CompletableFuture<ObjectCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Object> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Object.class), params, ObjectCollection.class,
+                ObjectCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Object> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Object.class), params, ObjectCollection.class,
+                ObjectCollection::getData, parallelism, ordered, apiKey);
+    }
+
 }
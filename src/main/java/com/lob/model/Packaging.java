@@ -1,5 +1,7 @@
 package com.lob.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
@@ -31,16 +33,24 @@ public class Packaging extends APIResource {
 	public static Packaging retrieve(String id, String apiKey)
 			throws AuthenticationException, InvalidRequestException,
 			APIConnectionException, APIException {
-		return request(RequestMethod.GET, instanceURL(Packaging.class, id), null,
+		return cachedRequest(instanceURL(Packaging.class, id),
 				Packaging.class, apiKey);
 	}
 
+	public static CompletableFuture<Packaging> retrieveAsync(String id, String apiKey) {
+		return async(() -> retrieve(id, apiKey));
+	}
+
 	public static PackagingCollection all(String apiKey) 
 		throws AuthenticationException,
 			InvalidRequestException, APIConnectionException, 
 			APIException {
-		return request(RequestMethod.GET, classURL(Packaging.class), null,
+		return cachedRequest(classURL(Packaging.class),
 				PackagingCollection.class, apiKey);
 	}
 
+	public static CompletableFuture<PackagingCollection> allAsync(String apiKey) {
+		return async(() -> all(apiKey));
+	}
+
 }
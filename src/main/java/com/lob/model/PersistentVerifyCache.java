@@ -0,0 +1,350 @@
+package com.lob.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+import com.lob.net.VerifyCache;
+
+/**
+ * Disk-backed store for {@code Address.verify} results, kept in a
+ * memory-mapped file so that it survives restarts and can be shared by every
+ * JVM on the host.
+ *
+ *     VerifyCache.setStore(new PersistentVerifyCache(new File("/var/cache/lob/verify.bin")));
+ *     VerifyCache.setEnabled(true);
+ *
+ * The file holds a fixed-size open-addressing index followed by an
+ * append-only data area:
+ *
+ *     header  magic, version, capacity, count, data end
+ *     index   capacity slots of (8-byte key hash, 8-byte record offset)
+ *     data    records of (32-byte key digest, length, CRC32, created-at,
+ *             address fields)
+ *
+ * Keys are stored as SHA-256 digests, so API keys never reach the disk.
+ * Address fields are written as length-prefixed UTF-8 and decoded straight
+ * into a Verify, without JSON parsing.
+ *
+ * Readers take no locks. A writer appends the record, then publishes its
+ * offset, then the key hash. Plain writes to a mapped file give no ordering
+ * guarantee between processes, though, and {@link #clear()} reuses the data
+ * area, so a reader may still see a record that is half written. A record
+ * is only decoded once its length fits the file and the CRC32 of its
+ * created-at and fields matches; otherwise, or if decoding throws, the read
+ * is a miss. Writers serialize on an exclusive file lock. Once the index is three
+ * quarters full or the data area is exhausted, new results are no longer
+ * stored; {@link #clear()} starts over. Open one instance per file per JVM.
+ */
+public class PersistentVerifyCache implements VerifyCache.Store, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 22; // 4M slots
+    public static final long DEFAULT_DATA_BYTES = 1L << 30; // 1 GB
+
+    private static final int MAGIC = 0x4c4f4256; // "LOBV"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int COUNT_OFFSET = 12;
+    private static final int DATA_END_OFFSET = 16;
+    private static final int SLOT_BYTES = 16;
+    private static final int DIGEST_BYTES = 32;
+    private static final int LENGTH_OFFSET = DIGEST_BYTES;
+    private static final int CRC_OFFSET = DIGEST_BYTES + 4;
+    // created-at and the address fields, which the CRC covers
+    private static final int BODY_OFFSET = DIGEST_BYTES + 8;
+    private static final int NULL_FIELD = 0xFFFF;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int dataStart;
+
+    public PersistentVerifyCache(File path) throws IOException {
+        this(path, DEFAULT_CAPACITY, DEFAULT_DATA_BYTES);
+    }
+
+    /**
+     * @param capacity  number of index slots, rounded up to a power of two;
+     *                  ignored when the file already exists
+     * @param dataBytes size of the record area; ignored when the file
+     *                  already exists
+     */
+    public PersistentVerifyCache(File path, int capacity, long dataBytes) throws IOException {
+        capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        long size = HEADER_BYTES + (long) capacity * SLOT_BYTES + dataBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache file must be smaller than 2 GB");
+        }
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        try {
+            FileLock lock = channel.lock();
+            try {
+                if (file.length() < HEADER_BYTES) {
+                    file.setLength(size);
+                    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                    header.putInt(4, VERSION);
+                    header.putInt(8, capacity);
+                    header.putInt(COUNT_OFFSET, 0);
+                    header.putLong(DATA_END_OFFSET, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+                    header.putInt(0, MAGIC);
+                    header.force();
+                }
+            } finally {
+                lock.release();
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(path + " is not a Lob verification cache");
+            }
+            this.capacity = buffer.getInt(8);
+            this.dataStart = HEADER_BYTES + this.capacity * SLOT_BYTES;
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of results stored in the file, by all processes.
+     */
+    public int size() {
+        return buffer.getInt(COUNT_OFFSET);
+    }
+
+    public java.lang.Object get(String key, long maxAge) {
+        try {
+            return find(key, maxAge);
+        } catch (RuntimeException e) {
+            // a record being rewritten by another process; see the class comment
+            return null;
+        }
+    }
+
+    private java.lang.Object find(String key, long maxAge) {
+        byte[] digest = digest(key);
+        long hash = hash(digest);
+        int mask = capacity - 1;
+        for (int i = 0, slot = (int) hash & mask; i < capacity; i++, slot = (slot + 1) & mask) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long slotHash = buffer.getLong(position);
+            if (slotHash == 0) {
+                return null;
+            }
+            if (slotHash != hash) {
+                continue;
+            }
+            int record = (int) buffer.getLong(position + 8);
+            if (record < dataStart || !digestMatches(record, digest)) {
+                continue;
+            }
+            ByteBuffer body = body(record);
+            if (body == null || System.currentTimeMillis() - body.getLong() >= maxAge) {
+                return null;
+            }
+            return decode(body);
+        }
+        return null;
+    }
+
+    /*
+     * A copy of the record's body, or null if it is half written.
+     */
+    private ByteBuffer body(int record) {
+        int length = buffer.getInt(record + LENGTH_OFFSET);
+        if (length < BODY_OFFSET + 8 || length > buffer.capacity() - record) {
+            return null;
+        }
+        byte[] body = new byte[length - BODY_OFFSET];
+        ByteBuffer data = buffer.duplicate();
+        data.position(record + BODY_OFFSET);
+        data.get(body);
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        if ((int) crc.getValue() != buffer.getInt(record + CRC_OFFSET)) {
+            return null;
+        }
+        return ByteBuffer.wrap(body);
+    }
+
+    public void put(String key, java.lang.Object value) {
+        if (!(value instanceof Verify) || ((Verify) value).address == null) {
+            return;
+        }
+        byte[] record = encode(digest(key), ((Verify) value).address);
+        try {
+            synchronized (this) {
+                FileLock lock = channel.lock();
+                try {
+                    insert(record);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            // the store is best effort; the result stays in the heap cache
+        }
+    }
+
+    private void insert(byte[] record) {
+        long dataEnd = buffer.getLong(DATA_END_OFFSET);
+        if (dataEnd + record.length > buffer.capacity()) {
+            return;
+        }
+        long hash = hash(record);
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+        int position;
+        while (true) {
+            position = HEADER_BYTES + slot * SLOT_BYTES;
+            long slotHash = buffer.getLong(position);
+            if (slotHash == 0) {
+                if (size() >= capacity / 4 * 3) {
+                    return;
+                }
+                break;
+            }
+            if (slotHash == hash && digestMatches((int) buffer.getLong(position + 8), record)) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        ByteBuffer data = buffer.duplicate();
+        data.position((int) dataEnd);
+        data.put(record);
+        buffer.putLong(DATA_END_OFFSET, dataEnd + record.length);
+        // offset before hash, so readers never follow a half-written slot
+        buffer.putLong(position + 8, dataEnd);
+        if (buffer.getLong(position) == 0) {
+            buffer.putLong(position, hash);
+            buffer.putInt(COUNT_OFFSET, size() + 1);
+        }
+    }
+
+    /**
+     * Drops every stored result, for all processes sharing the file.
+     */
+    public synchronized void clear() throws IOException {
+        FileLock lock = channel.lock();
+        try {
+            for (int position = HEADER_BYTES; position < dataStart; position += 8) {
+                buffer.putLong(position, 0);
+            }
+            buffer.putInt(COUNT_OFFSET, 0);
+            buffer.putLong(DATA_END_OFFSET, dataStart);
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Flushes the mapping to disk and closes the file. The store must not be
+     * used afterwards.
+     */
+    public void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+
+    private boolean digestMatches(int record, byte[] digest) {
+        for (int i = 0; i < DIGEST_BYTES; i++) {
+            if (buffer.get(record + i) != digest[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(byte[] digest, Address address) {
+        String[] fields = {address.name, address.email, address.phone,
+                address.address_line1, address.address_line2, address.address_city,
+                address.address_state, address.address_zip, address.address_country,
+                address.object};
+        byte[][] encoded = new byte[fields.length][];
+        int length = BODY_OFFSET + 8;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                encoded[i] = fields[i].getBytes(UTF_8);
+                if (encoded[i].length >= NULL_FIELD) {
+                    encoded[i] = null;
+                }
+            }
+            length += 2 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.put(digest);
+        record.putInt(length);
+        record.putInt(0); // the CRC, once the body is written
+        record.putLong(System.currentTimeMillis());
+        for (byte[] field : encoded) {
+            if (field == null) {
+                record.putShort((short) NULL_FIELD);
+            } else {
+                record.putShort((short) field.length);
+                record.put(field);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), BODY_OFFSET, length - BODY_OFFSET);
+        record.putInt(CRC_OFFSET, (int) crc.getValue());
+        return record.array();
+    }
+
+    private static Verify decode(ByteBuffer data) {
+        Address address = new Address();
+        address.name = readField(data);
+        address.email = readField(data);
+        address.phone = readField(data);
+        address.address_line1 = readField(data);
+        address.address_line2 = readField(data);
+        address.address_city = readField(data);
+        address.address_state = readField(data);
+        address.address_zip = readField(data);
+        address.address_country = readField(data);
+        address.object = readField(data);
+        Verify verify = new Verify();
+        verify.address = address;
+        return verify;
+    }
+
+    private static String readField(ByteBuffer data) {
+        int length = data.getShort() & 0xFFFF;
+        if (length == NULL_FIELD) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static byte[] digest(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * First eight bytes of the digest; zero marks an empty slot.
+     */
+    private static long hash(byte[] digest) {
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -1,12 +1,15 @@
 package com.lob.model;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
+import com.lob.net.PageIterator;
+import com.lob.net.ParallelPageIterator;
 
 public class Postcard extends APIResource {
     String id;
@@ -52,11 +55,29 @@ public class Postcard extends APIResource {
                 Postcard.class, apiKey);
     }
 
+    public static CompletableFuture<Postcard> retrieveAsync(String id, String apiKey) {
+        return async(() -> retrieve(id, apiKey));
+    }
+
     public static Postcard create(Map<String, java.lang.Object> params, String apiKey)
             throws AuthenticationException, InvalidRequestException,
             APIConnectionException, APIException {
             return request(RequestMethod.POST, classURL(Postcard.class), params,
                     Postcard.class, apiKey);
+    }
+
+    public static CompletableFuture<Postcard> createAsync(Map<String, java.lang.Object> params, String apiKey) {
+        return async(() -> create(params, apiKey));
+    }
+
+    public static Postcard create(PostcardParams params, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        return request(classURL(Postcard.class), params, Postcard.class, apiKey);
+    }
+
+    public static CompletableFuture<Postcard> createAsync(PostcardParams params, String apiKey) {
+        return async(() -> create(params, apiKey));
     }   
     
     public static PostcardCollection all(Map<String, java.lang.Object> params,
@@ -67,4 +88,21 @@ public class Postcard extends APIResource {
                 PostcardCollection.class, apiKey);
     }
 
+    public static CompletableFuture<PostcardCollection> allAsync(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return async(() -> all(params, apiKey));
+    }
+
+    public static PageIterator<Postcard> iterateAll(Map<String, java.lang.Object> params,
+            String apiKey) {
+        return iterate(classURL(Postcard.class), params, PostcardCollection.class,
+                PostcardCollection::getData, apiKey);
+    }
+
+    public static ParallelPageIterator<Postcard> iterateAllParallel(Map<String, java.lang.Object> params,
+            int parallelism, boolean ordered, String apiKey) {
+        return iterateParallel(classURL(Postcard.class), params, PostcardCollection.class,
+                PostcardCollection::getData, parallelism, ordered, apiKey);
+    }
+
 }
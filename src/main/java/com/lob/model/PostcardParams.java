@@ -0,0 +1,66 @@
+package com.lob.model;
+
+import com.lob.net.RequestParams;
+
+/**
+ * Typed params for {@link Postcard#create(PostcardParams, String)}.
+ *
+ * "to" and "from" take either the id of a saved address or an inline
+ * {@link AddressParams}; "front" and "back" take a URL or an "@path" file.
+ */
+public class PostcardParams extends RequestParams {
+
+    private static final int NAME = 0;
+    private static final int TO = 1;
+    private static final int FROM = 2;
+    private static final int MESSAGE = 3;
+    private static final int FRONT = 4;
+    private static final int BACK = 5;
+
+    private static final Fields FIELDS = new Fields("name", "to", "from",
+            "message", "front", "back");
+
+    public PostcardParams() {
+        super(FIELDS);
+    }
+
+    public PostcardParams name(String name) {
+        set(NAME, name);
+        return this;
+    }
+
+    public PostcardParams to(String addressId) {
+        set(TO, addressId);
+        return this;
+    }
+
+    public PostcardParams to(AddressParams address) {
+        set(TO, address);
+        return this;
+    }
+
+    public PostcardParams from(String addressId) {
+        set(FROM, addressId);
+        return this;
+    }
+
+    public PostcardParams from(AddressParams address) {
+        set(FROM, address);
+        return this;
+    }
+
+    public PostcardParams message(String message) {
+        set(MESSAGE, message);
+        return this;
+    }
+
+    public PostcardParams front(String front) {
+        set(FRONT, front);
+        return this;
+    }
+
+    public PostcardParams back(String back) {
+        set(BACK, back);
+        return this;
+    }
+}
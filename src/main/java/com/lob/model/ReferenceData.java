@@ -0,0 +1,35 @@
+package com.lob.model;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.AuthenticationException;
+import com.lob.exception.InvalidRequestException;
+import com.lob.net.APIResource;
+
+/**
+ * Loads every catalog endpoint into the ReferenceDataCache, e.g. at
+ * application startup, so later lookups are served from memory.
+ */
+public class ReferenceData extends APIResource {
+
+	public static void warmUp(String apiKey)
+		throws AuthenticationException,
+			InvalidRequestException, APIConnectionException,
+			APIException {
+		Country.all(apiKey);
+		State.all(apiKey);
+		Setting.all(apiKey);
+		Service.all(apiKey);
+		Packaging.all(apiKey);
+	}
+
+	public static CompletableFuture<Void> warmUpAsync(String apiKey) {
+		return async(() -> {
+			warmUp(apiKey);
+			return null;
+		});
+	}
+
+}
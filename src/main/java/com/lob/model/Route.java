@@ -1,8 +1,10 @@
 package com.lob.model;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
@@ -11,6 +13,9 @@ import com.lob.exception.InvalidRequestException;
 import com.lob.net.APIResource;
 
 public class Route extends APIResource {
+    public static final int MAX_ZIP_CODES_PER_REQUEST = 100;
+    public static final int DEFAULT_PARALLELISM = 4;
+
     String route;
     Integer residential;
     Integer business;
@@ -33,6 +38,50 @@ public class Route extends APIResource {
     }
 
     public static RouteCollection all(List<String> zipCodes, String apiKey)
+        throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        return all(zipCodes, MAX_ZIP_CODES_PER_REQUEST, DEFAULT_PARALLELISM, apiKey);
+    }
+
+    /**
+     * Looks up routes for any number of ZIP codes. The list is split into
+     * requests of at most chunkSize ZIP codes, keeping each URL well within
+     * server limits; up to parallelism of them run at once, and the results
+     * are merged in the order of zipCodes.
+     */
+    public static RouteCollection all(List<String> zipCodes, int chunkSize,
+            int parallelism, final String apiKey)
+        throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (zipCodes.size() <= chunkSize) {
+            return chunk(zipCodes, apiKey);
+        }
+        List<LobCall<RouteCollection>> calls = new ArrayList<LobCall<RouteCollection>>();
+        for (int start = 0; start < zipCodes.size(); start += chunkSize) {
+            final List<String> chunk = zipCodes.subList(start,
+                    Math.min(start + chunkSize, zipCodes.size()));
+            calls.add(() -> chunk(chunk, apiKey));
+        }
+        RouteCollection merged = new RouteCollection();
+        merged.data = new ArrayList<Zip_code>(zipCodes.size());
+        for (RouteCollection page : parallel(calls, parallelism)) {
+            merged.object = page.object;
+            if (page.data != null) {
+                merged.data.addAll(page.data);
+            }
+        }
+        return merged;
+    }
+
+    private static RouteCollection chunk(List<String> zipCodes, String apiKey)
         throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
             APIException {
@@ -45,4 +94,8 @@ public class Route extends APIResource {
         return request(RequestMethod.GET, classURL(Route.class), params,
                 RouteCollection.class, apiKey);
     }
+
+    public static CompletableFuture<RouteCollection> allAsync(List<String> zipCodes, String apiKey) {
+        return async(() -> all(zipCodes, apiKey));
+    }
 }
@@ -0,0 +1,204 @@
+package com.lob.model;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.lob.exception.APIException;
+import com.lob.exception.RateLimitException;
+
+/**
+ * Merges route lookups made by many threads at about the same time into
+ * shared {@code Route.all} requests.
+ *
+ *     RouteBatcher batcher = new RouteBatcher(apiKey);
+ *     CompletableFuture<Zip_code> routes = batcher.lookup("94107");
+ *
+ * The first lookup after a quiet period opens a window (5 ms by default);
+ * every ZIP code asked for during the window goes out in one request, which
+ * is sent early once maxBatchSize distinct ZIP codes are waiting. Each
+ * caller's future completes with the Zip_code for the ZIP code it asked for.
+ *
+ * One invalid ZIP code makes Lob reject the whole request, so a batch that
+ * is rejected as invalid (HTTP 400 or 422) is retried one ZIP code at a
+ * time; only the offending lookups then fail. Any other failure, such as
+ * rate limiting or a server error, fails the whole batch.
+ */
+public class RouteBatcher implements Closeable {
+
+    public static final long DEFAULT_WINDOW = 5;
+
+    private final String apiKey;
+    private final long window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private Map<String, List<CompletableFuture<Zip_code>>> pending =
+            new LinkedHashMap<String, List<CompletableFuture<Zip_code>>>();
+    private boolean closed;
+
+    public RouteBatcher(String apiKey) {
+        this(apiKey, DEFAULT_WINDOW, Route.MAX_ZIP_CODES_PER_REQUEST);
+    }
+
+    /**
+     * @param window       how long to wait for more lookups, in milliseconds
+     * @param maxBatchSize distinct ZIP codes that trigger an immediate send
+     */
+    public RouteBatcher(String apiKey, long window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.apiKey = apiKey;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "lob-route-batcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public CompletableFuture<Zip_code> lookup(String zipCode) {
+        CompletableFuture<Zip_code> future = new CompletableFuture<Zip_code>();
+        Map<String, List<CompletableFuture<Zip_code>>> full = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("RouteBatcher is closed");
+            }
+            List<CompletableFuture<Zip_code>> waiting = pending.get(zipCode);
+            if (waiting == null) {
+                waiting = new ArrayList<CompletableFuture<Zip_code>>(1);
+                pending.put(zipCode, waiting);
+                if (pending.size() == 1 && maxBatchSize > 1) {
+                    timer.schedule(new Runnable() {
+                        public void run() {
+                            flush();
+                        }
+                    }, window, TimeUnit.MILLISECONDS);
+                }
+            }
+            waiting.add(future);
+            if (pending.size() >= maxBatchSize) {
+                full = take();
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    public CompletableFuture<List<Zip_code>> lookup(List<String> zipCodes) {
+        final List<CompletableFuture<Zip_code>> futures = new ArrayList<CompletableFuture<Zip_code>>();
+        for (String zipCode : zipCodes) {
+            futures.add(lookup(zipCode));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+                .thenApply(ignored -> {
+                    List<Zip_code> result = new ArrayList<Zip_code>(futures.size());
+                    for (CompletableFuture<Zip_code> future : futures) {
+                        result.add(future.join());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Sends whatever is waiting without waiting for the window to close.
+     */
+    public void flush() {
+        Map<String, List<CompletableFuture<Zip_code>>> batch;
+        synchronized (this) {
+            batch = take();
+        }
+        send(batch);
+    }
+
+    /**
+     * Sends the lookups still waiting and stops accepting new ones.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        timer.shutdown();
+    }
+
+    private Map<String, List<CompletableFuture<Zip_code>>> take() {
+        Map<String, List<CompletableFuture<Zip_code>>> batch = pending;
+        pending = new LinkedHashMap<String, List<CompletableFuture<Zip_code>>>();
+        return batch;
+    }
+
+    private void send(final Map<String, List<CompletableFuture<Zip_code>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Route.allAsync(new ArrayList<String>(batch.keySet()), apiKey)
+                .whenComplete((routes, error) -> {
+                    if (error == null) {
+                        deliver(batch, routes);
+                    } else if (batch.size() > 1 && isRejection(error)) {
+                        // find the ZIP codes that were rejected
+                        for (Map.Entry<String, List<CompletableFuture<Zip_code>>> lookup : batch.entrySet()) {
+                            send(Collections.singletonMap(lookup.getKey(), lookup.getValue()));
+                        }
+                    } else {
+                        fail(batch, error);
+                    }
+                });
+    }
+
+    /*
+     * Lob refused the ZIP codes themselves. Rate limiting, server errors and
+     * everything else fail the whole batch rather than multiply it.
+     */
+    private static boolean isRejection(Throwable error) {
+        if (!(error instanceof APIException) || error instanceof RateLimitException) {
+            return false;
+        }
+        int status = ((APIException) error).getStatusCode();
+        return status == 400 || status == 422;
+    }
+
+    private static void deliver(Map<String, List<CompletableFuture<Zip_code>>> batch,
+            RouteCollection routes) {
+        Map<String, Zip_code> byZip = new HashMap<String, Zip_code>();
+        if (routes.getData() != null) {
+            for (Zip_code zipCode : routes.getData()) {
+                byZip.put(zipCode.getZip_code(), zipCode);
+            }
+        }
+        for (Map.Entry<String, List<CompletableFuture<Zip_code>>> lookup : batch.entrySet()) {
+            Zip_code zipCode = byZip.get(lookup.getKey());
+            for (CompletableFuture<Zip_code> future : lookup.getValue()) {
+                if (zipCode != null) {
+                    future.complete(zipCode);
+                } else {
+                    future.completeExceptionally(new APIException(
+                            "No routes returned for ZIP code " + lookup.getKey(), null));
+                }
+            }
+        }
+    }
+
+    private static void fail(Map<String, List<CompletableFuture<Zip_code>>> batch, Throwable cause) {
+        for (List<CompletableFuture<Zip_code>> futures : batch.values()) {
+            for (CompletableFuture<Zip_code> future : futures) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+}
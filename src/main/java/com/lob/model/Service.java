@@ -1,5 +1,7 @@
 package com.lob.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
@@ -32,8 +34,12 @@ public class Service extends APIResource {
 		throws AuthenticationException,
 			InvalidRequestException, APIConnectionException, 
 			APIException {
-		return request(RequestMethod.GET, classURL(Service.class), null,
+		return cachedRequest(classURL(Service.class),
 				ServiceCollection.class, apiKey);
 	}
 
+	public static CompletableFuture<ServiceCollection> allAsync(String apiKey) {
+		return async(() -> all(apiKey));
+	}
+
 }
@@ -1,5 +1,7 @@
 package com.lob.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
@@ -56,16 +58,24 @@ public class Setting extends APIResource {
 	public static Setting retrieve(String id, String apiKey)
 			throws AuthenticationException, InvalidRequestException,
 			APIConnectionException, APIException {
-		return request(RequestMethod.GET, instanceURL(Setting.class, id), null,
+		return cachedRequest(instanceURL(Setting.class, id),
 				Setting.class, apiKey);
 	}
 
+	public static CompletableFuture<Setting> retrieveAsync(String id, String apiKey) {
+		return async(() -> retrieve(id, apiKey));
+	}
+
 	public static SettingCollection all(String apiKey) 
 		throws AuthenticationException,
 			InvalidRequestException, APIConnectionException, 
 			APIException {
-		return request(RequestMethod.GET, classURL(Setting.class), null,
+		return cachedRequest(classURL(Setting.class),
 				SettingCollection.class, apiKey);
 	}
 
+	public static CompletableFuture<SettingCollection> allAsync(String apiKey) {
+		return async(() -> all(apiKey));
+	}
+
 }
@@ -1,5 +1,7 @@
 package com.lob.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
@@ -32,8 +34,12 @@ public class State extends APIResource {
 		throws AuthenticationException,
 			InvalidRequestException, APIConnectionException, 
 			APIException {
-		return request(RequestMethod.GET, classURL(State.class), null,
+		return cachedRequest(classURL(State.class),
 				StateCollection.class, apiKey);
 	}
 
+	public static CompletableFuture<StateCollection> allAsync(String apiKey) {
+		return async(() -> all(apiKey));
+	}
+
 }
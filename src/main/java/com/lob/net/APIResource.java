@@ -1,35 +1,31 @@
 package com.lob.net;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLEncoder;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.mime.HttpMultipartMode;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.HttpClientBuilder;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 import com.lob.Lob;
 import com.lob.exception.APIConnectionException;
 import com.lob.exception.APIException;
 import com.lob.exception.AuthenticationException;
 import com.lob.exception.InvalidRequestException;
+import com.lob.exception.LobException;
 import com.lob.model.LobObject;
 
 public abstract class APIResource extends LobObject {
@@ -64,18 +60,12 @@ public abstract class APIResource extends LobObject {
 
     public static final String CHARSET = "UTF-8";
 
-    private static final String DNS_CACHE_TTL_PROPERTY_NAME = "networkaddress.cache.ttl";
+    private static final SingleFlight singleFlight = new SingleFlight();
 
-    protected enum RequestMethod {
+    public enum RequestMethod {
         GET, POST, DELETE
     }
 
-    private static String urlEncodePair(String k, String v)
-            throws UnsupportedEncodingException {
-        return String.format("%s=%s", URLEncoder.encode(k, CHARSET),
-                URLEncoder.encode(v, CHARSET));
-    }
-
     static Map<String, String> getHeaders(String apiKey) {
         Map<String, String> headers = new HashMap<String, String>();
         headers.put("Accept-Charset", CHARSET);
@@ -89,7 +79,8 @@ public abstract class APIResource extends LobObject {
         if (!apiKey.endsWith(":"))
             apiKey = apiKey + ":";
 
-        headers.put("Authorization", "Basic " + apiKey);
+        byte[] authEncBytes = org.apache.commons.codec.binary.Base64.encodeBase64(apiKey.getBytes());
+        headers.put("Authorization", "Basic " + new String(authEncBytes));
 
         // debug headers
 /*      String[] propertyNames = { "os.name", "os.version", "os.arch",
@@ -109,268 +100,299 @@ public abstract class APIResource extends LobObject {
 */      return headers;
     }
 
-    private static javax.net.ssl.HttpsURLConnection createLobConnection(
-            String url, String apiKey) throws IOException {
-        URL lobURL = new URL(url);
-
-        javax.net.ssl.HttpsURLConnection conn = (javax.net.ssl.HttpsURLConnection) lobURL
-                .openConnection(); // enforce
-                                    // SSL
-                                    // URLs
-        conn.setConnectTimeout(30000); // 30 seconds
-        conn.setReadTimeout(80000); // 80 seconds
-        conn.setUseCaches(false);
-
-        if (!apiKey.endsWith(":"))
-            apiKey = apiKey + ":";
-
-        byte[] authEncBytes = org.apache.commons.codec.binary.Base64.encodeBase64(apiKey.getBytes());
-        String authStringEnc = new String(authEncBytes);
-
-        conn.setRequestProperty("Authorization", "Basic " + authStringEnc);
-
-        return conn;
+    // represents Errors returned as JSON
+    private static class ErrorContainer {
+        private List<APIResource.Error> errors;
     }
 
-    private static javax.net.ssl.HttpsURLConnection createGetConnection(
-            String url, String query, String apiKey) throws IOException {
-        String getURL;
-        if ("".equals(query)) {
-            getURL = url;
-        } else {
-            getURL = String.format("%s?%s", url, query);
-        }
+    private static class Error {
+        String message;
 
-        javax.net.ssl.HttpsURLConnection conn = createLobConnection(getURL,
-                apiKey);
-        conn.setRequestMethod("GET");
-        return conn;
+        String status_code;
     }
 
-    private static HttpResponse createPostConnection(
-            String url, String query, String apiKey, Map<String, Object> params) throws IOException {
-
-        HttpClient httpclient = HttpClientBuilder.create().build();
-        HttpPost httppost = new HttpPost(url);
+    protected interface LobCall<T> {
+        T call() throws LobException;
+    }
 
+    /*
+     * Runs a blocking call on the async executor. Requests still go through
+     * the shared connection pool, so the executor is sized to match it.
+     */
+    protected static <T> CompletableFuture<T> async(final LobCall<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
         try {
-            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
-
-            Map<String, String> flatParams = flattenParams(params);
-            for (Map.Entry<String, String> entry : flatParams.entrySet()) {
-                String val = entry.getValue();
-                if (val.startsWith("@")) {
-                    String filename = val.substring(1);
-                    java.io.File file = new java.io.File(filename);
-
-                    java.io.FileInputStream fis = null;
-                    java.io.ByteArrayOutputStream bos = null;
+            LobHttpClient.asyncExecutor().execute(new Runnable() {
+                public void run() {
                     try {
-                        fis = new java.io.FileInputStream(file);
-                        bos = new java.io.ByteArrayOutputStream();
-                        byte[] buf = new byte[1024];
-    
-                        for (int readNum; (readNum = fis.read(buf)) != -1;) {
-                            bos.write(buf, 0, readNum); //no doubt here is 0
-                                //Writes len bytes from the specified byte array starting at offset off to this byte array output stream.
-                                //System.out.println("read " + readNum + " bytes,");
-                        }
-                    } finally {
-                        if (fis != null) {
-                            fis.close();
-                        }
+                        future.complete(call.call());
+                    } catch (LobException e) {
+                        future.completeExceptionally(e);
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
                     }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 
-                    org.apache.http.entity.mime.content.ContentBody contentPart =
-                        new org.apache.http.entity.mime.content.ByteArrayBody(bos.toByteArray(), filename);
-
-                    builder.addPart(entry.getKey(), contentPart);
-                } else {
-                    builder.addTextBody(entry.getKey(), entry.getValue());
+    /*
+     * Runs calls with at most parallelism of them in flight and returns the
+     * results in the order of the calls. The calling thread works through
+     * the calls too, so this never waits on a saturated executor. The first
+     * failure stops further calls from starting and is rethrown.
+     */
+    protected static <T> List<T> parallel(final List<? extends LobCall<T>> calls,
+            int parallelism) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        final int n = calls.size();
+        final List<CompletableFuture<T>> results = new ArrayList<CompletableFuture<T>>(n);
+        for (int i = 0; i < n; i++) {
+            results.add(new CompletableFuture<T>());
+        }
+        final AtomicInteger next = new AtomicInteger();
+        Runnable worker = new Runnable() {
+            public void run() {
+                for (int i; (i = next.getAndIncrement()) < n;) {
+                    try {
+                        results.get(i).complete(calls.get(i).call());
+                    } catch (LobException e) {
+                        next.set(n);
+                        results.get(i).completeExceptionally(e);
+                    } catch (RuntimeException e) {
+                        next.set(n);
+                        results.get(i).completeExceptionally(e);
+                    }
                 }
             }
+        };
+        for (int i = 1; i < Math.min(parallelism, n); i++) {
+            try {
+                LobHttpClient.asyncExecutor().execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        return call(() -> {
+            List<T> values = new ArrayList<T>(n);
+            // calls are claimed in order, so a failure is met before any
+            // call it kept from starting
+            for (CompletableFuture<T> result : results) {
+                try {
+                    values.add(result.join());
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof LobException) {
+                        throw (LobException) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+            return values;
+        });
+    }
 
-            HttpEntity yourEntity = builder.build();
-            httppost.setEntity(yourEntity);
-
-            httppost.addHeader("User-Agent",
-                    String.format("Lob/v1 JavaBindings/%s", Lob.VERSION));
-
-        if (!apiKey.endsWith(":"))
-                apiKey = apiKey + ":";
-
-            byte[] authEncBytes = org.apache.commons.codec.binary.Base64.encodeBase64(apiKey.getBytes());
-            String authStringEnc = new String(authEncBytes);
-
-            httppost.addHeader("Authorization", "Basic " + authStringEnc);
+    /*
+     * Lazy iterator over every element of a list endpoint. A count in params
+     * sets the page size and an offset the starting point.
+     */
+    protected static <T, C> PageIterator<T> iterate(String url,
+            Map<String, Object> params, Class<C> clazz,
+            Function<C, List<T>> data, String apiKey) {
+        Map<String, Object> query = params == null
+                ? new HashMap<String, Object>() : new HashMap<String, Object>(params);
+        int count = pageParam(query.remove("count"), PageIterator.DEFAULT_PAGE_SIZE);
+        int offset = pageParam(query.remove("offset"), 0);
+        return new PageIterator<T>(pageLoader(url, query, clazz, data, apiKey),
+                offset, count);
+    }
 
-            HttpResponse response = httpclient.execute(httppost);
-            return response;
+    /*
+     * As iterate, with up to parallelism pages requested at once.
+     */
+    protected static <T, C> ParallelPageIterator<T> iterateParallel(String url,
+            Map<String, Object> params, Class<C> clazz,
+            Function<C, List<T>> data, int parallelism, boolean ordered,
+            String apiKey) {
+        Map<String, Object> query = params == null
+                ? new HashMap<String, Object>() : new HashMap<String, Object>(params);
+        int count = pageParam(query.remove("count"), PageIterator.DEFAULT_PAGE_SIZE);
+        int offset = pageParam(query.remove("offset"), 0);
+        return new ParallelPageIterator<T>(pageLoader(url, query, clazz, data, apiKey),
+                offset, count, parallelism, ordered);
+    }
 
-        }
-        catch (InvalidRequestException e)
-        {
-            throw new IOException(e);
-        }
+    private static <T, C> PageIterator.PageLoader<T> pageLoader(final String url,
+            final Map<String, Object> query, final Class<C> clazz,
+            final Function<C, List<T>> data, final String apiKey) {
+        return (pageOffset, pageSize) -> {
+            Map<String, Object> page = new HashMap<String, Object>(query);
+            page.put("count", pageSize);
+            page.put("offset", pageOffset);
+            return data.apply(request(RequestMethod.GET, url, page, clazz, apiKey));
+        };
     }
 
-    private static javax.net.ssl.HttpsURLConnection createDeleteConnection(
-            String url, String query, String apiKey) throws IOException {
-        String deleteUrl = String.format("%s?%s", url, query);
-        javax.net.ssl.HttpsURLConnection conn = createLobConnection(
-                deleteUrl, apiKey);
-        conn.setRequestMethod("DELETE");
-        return conn;
+    private static int pageParam(Object value, int defaultValue) {
+        return value == null ? defaultValue : Integer.parseInt(value.toString());
     }
 
-    private static String createQuery(Map<String, Object> params)
-        throws UnsupportedEncodingException, InvalidRequestException {
-        Map<String, String> flatParams = flattenParams(params);
-        StringBuffer queryStringBuffer = new StringBuffer();
-        for (Map.Entry<String, String> entry : flatParams.entrySet()) {
-            queryStringBuffer.append("&");
-            queryStringBuffer.append(urlEncodePair(entry.getKey(),
-                    entry.getValue()));
-        }
-        if (queryStringBuffer.length() > 0) {
-            queryStringBuffer.deleteCharAt(0);
+    protected static <T> T request(APIResource.RequestMethod method,
+            String url, Map<String, Object> params, Class<T> clazz,
+            String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        if (method == RequestMethod.GET && LobHttpClient.isCoalescingGets()) {
+            return coalescedRequest(url, params, clazz, apiKey);
         }
-        return queryStringBuffer.toString();
+        return _request(method, url, params, clazz, apiKey);
     }
 
-    private static Map<String, String> flattenParams(Map<String, Object> params)
-            throws InvalidRequestException {
-        if (params == null) {
-            return new HashMap<String, String>();
-        }
-        Map<String, String> flatParams = new HashMap<String, String>();
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            if (value instanceof Map<?, ?>) {
-                Map<String, Object> flatNestedMap = new HashMap<String, Object>();
-                Map<?, ?> nestedMap = (Map<?, ?>) value;
-                for (Map.Entry<?, ?> nestedEntry : nestedMap.entrySet()) {
-                    flatNestedMap.put(
-                            String.format("%s[%s]", key, nestedEntry.getKey()),
-                            nestedEntry.getValue());
-                }
-                flatParams.putAll(flattenParams(flatNestedMap));
-            } else if ("".equals(value)) {
-                throw new InvalidRequestException("You cannot set '"+key+"' to an empty string. "+
-                                  "We interpret empty strings as null in requests. "+
-                                  "You may set '"+key+"' to null to delete the property.",
-                                  key, null);
-            } else if (value == null) {
-                flatParams.put(key, "");
-            } else {
-                flatParams.put(key, value.toString());
-            }
-        }
-        return flatParams;
+    /*
+     * Concurrent identical GETs share one HTTP call and its deserialized
+     * result.
+     */
+    private static <T> T coalescedRequest(final String url,
+            final Map<String, Object> params, final Class<T> clazz,
+            final String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        String key = requestKey(url, params, clazz, apiKey);
+        return call(() -> singleFlight.execute(key,
+                () -> _request(RequestMethod.GET, url, params, clazz, apiKey)));
     }
 
-    // represents Errors returned as JSON
-    private static class ErrorContainer {
-        private List<APIResource.Error> errors;
+    /*
+     * GET for near-static catalog endpoints, answered from
+     * ReferenceDataCache while the cached copy is fresh.
+     */
+    protected static <T> T cachedRequest(final String url, final Class<T> clazz,
+            final String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        String key = requestKey(url, null, clazz, apiKey);
+        return call(() -> ReferenceDataCache.get(key,
+                () -> request(RequestMethod.GET, url, null, clazz, apiKey)));
     }
 
-    private static class Error {
-        String message;
+    /*
+     * POST whose result depends only on the address in params, memoized by
+     * VerifyCache when it is enabled.
+     */
+    protected static <T> T verifyRequest(final String url,
+            final Map<String, Object> params, final Class<T> clazz,
+            final String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        if (!VerifyCache.isEnabled()) {
+            return request(RequestMethod.POST, url, params, clazz, apiKey);
+        }
+        String key = String.format("%s %s\n%s", resolveApiKey(apiKey), url,
+                AddressNormalizer.normalize(params));
+        return call(() -> VerifyCache.get(key,
+                () -> request(RequestMethod.POST, url, params, clazz, apiKey)));
+    }
 
-        String status_code;
+    private static String requestKey(String url, Map<String, Object> params,
+            Class<?> clazz, String apiKey) throws InvalidRequestException {
+        return String.format("%s %s %s %s", apiKey == null ? Lob.apiKey : apiKey,
+                url, new TreeMap<String, String>(FormEncoder.flatten(params)), clazz.getName());
     }
 
-    private static String getResponseBody(InputStream responseStream)
-            throws IOException {
-        String rBody = new Scanner(responseStream, CHARSET).useDelimiter("\\A")
-                .next(); // \A is the beginning of
-                            // the stream boundary
-        responseStream.close();
-        return rBody;
+    /*
+     * GET for a single resource that rarely changes, revalidated against
+     * ConditionalGetCache: a 304 answer returns the object parsed from the
+     * last full response.
+     */
+    protected static <T> T conditionalRequest(String url, Class<T> clazz,
+            String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        if (!ConditionalGetCache.isEnabled()) {
+            return request(RequestMethod.GET, url, null, clazz, apiKey);
+        }
+        final String resolvedKey = resolveApiKey(apiKey);
+        final String key = requestKey(url, null, clazz, resolvedKey);
+        if (LobHttpClient.isCoalescingGets()) {
+            return call(() -> singleFlight.execute(key,
+                    () -> revalidate(key, url, clazz, resolvedKey)));
+        }
+        return revalidate(key, url, clazz, resolvedKey);
     }
 
-    private static LobResponse makeURLConnectionRequest(
-            APIResource.RequestMethod method, String url, String query,
-            String apiKey, Map<String, Object> params) throws APIConnectionException {
-        javax.net.ssl.HttpsURLConnection conn = null;
-        try {
-            switch (method) {
-            case GET:
-                conn = createGetConnection(url, query, apiKey);
-                break;
-            case POST:
-                HttpResponse response = createPostConnection(url, query, apiKey, params);
+    private static <T> T revalidate(String key, String url, Class<T> clazz,
+            String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        ConditionalGetCache.Entry cached = ConditionalGetCache.get(key);
 
-                int rCode = response.getStatusLine().getStatusCode();
-                String rBody = getResponseBody(response.getEntity().getContent());
-                return new LobResponse(rCode, rBody);
+        Map<String, String> headers = getHeaders(apiKey);
+        if (cached != null) {
+            cached.addValidators(headers);
+        }
 
-            case DELETE:
-                conn = createDeleteConnection(url, query, apiKey);
-                break;
-            default:
-                throw new APIConnectionException(
-                        String.format(
-                                "Unrecognized HTTP method %s. "
-                                        + "This indicates a bug in the Lob bindings. Please contact "
-                                        + "support@lob.com for assistance.",
-                                method));
+        LobResponse response = execute(RequestMethod.GET, url, headers, null, apiKey);
+        try {
+            int rCode = response.getResponseCode();
+            if (rCode == 304 && cached != null) {
+                ConditionalGetCache.hit();
+                return clazz.cast(cached.value);
             }
-            int rCode = conn.getResponseCode(); // triggers the request
-            String rBody = null;
-            if (rCode >= 200 && rCode < 300) {
-                rBody = getResponseBody(conn.getInputStream());
-            } else {
-                rBody = getResponseBody(conn.getErrorStream());
+            if (rCode < 200 || rCode >= 300) {
+                ConditionalGetCache.remove(key);
+                handleAPIError(response.getResponseBody(), rCode);
             }
-            return new LobResponse(rCode, rBody);
+            // the body is kept as a String only to account for its size
+            String body = response.getResponseBody();
+            T value = gson.fromJson(body, clazz);
+            ConditionalGetCache.put(key, response, body, value);
+            return value;
         } catch (IOException e) {
-            throw new APIConnectionException(
-                    String.format(
-                            "Could not connect to Lob (%s). "
-                                    + "Please check your internet connection and try again. If this problem persists,"
-                                    + "you should check Lob's service status at https://twitter.com/lobstatus,"
-                                    + " or let us know at support@lob.com.",
-                            Lob.API_BASE), e);
+            throw connectionError(e);
         } finally {
-            if (conn != null) {
-                conn.disconnect();
+            try {
+                response.close();
+            } catch (IOException e) {
+                // connection is discarded by the pool
             }
         }
     }
 
-    protected static <T> T request(APIResource.RequestMethod method,
-            String url, Map<String, Object> params, Class<T> clazz,
-            String apiKey) throws AuthenticationException,
-            InvalidRequestException, APIConnectionException,
-            APIException {
-        String originalDNSCacheTTL = null;
-        Boolean allowedToSetTTL = true;
-        try {
-            originalDNSCacheTTL = java.security.Security
-                    .getProperty(DNS_CACHE_TTL_PROPERTY_NAME);
-            // disable DNS cache
-            java.security.Security
-                    .setProperty(DNS_CACHE_TTL_PROPERTY_NAME, "0");
-        } catch (SecurityException se) {
-            allowedToSetTTL = false;
+    private static String resolveApiKey(String apiKey) throws AuthenticationException {
+        if ((Lob.apiKey == null || Lob.apiKey.length() == 0)
+                && (apiKey == null || apiKey.length() == 0)) {
+            throw new AuthenticationException(
+                    "No API key provided. (HINT: set your API key using 'Lob.apiKey = <API-KEY>'. "
+                            + "You can generate API keys from the Lob web interface. "
+                            + "See https://lob.com/api for details or email support@lob.com if you have questions.");
         }
+        return apiKey == null ? Lob.apiKey : apiKey;
+    }
 
+    /*
+     * Narrows the LobException thrown by a call to the exceptions declared
+     * by request.
+     */
+    static <T> T call(LobCall<T> call) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
         try {
-            return _request(method, url, params, clazz, apiKey);
-        } finally {
-            if (allowedToSetTTL) {
-                if (originalDNSCacheTTL == null) {
-                    // value unspecified by implementation
-                    java.security.Security.setProperty(
-                            DNS_CACHE_TTL_PROPERTY_NAME, "-1"); // cache forever
-                } else {
-                    java.security.Security.setProperty(
-                            DNS_CACHE_TTL_PROPERTY_NAME, originalDNSCacheTTL);
-                }
-            }
+            return call.call();
+        } catch (AuthenticationException e) {
+            throw e;
+        } catch (InvalidRequestException e) {
+            throw e;
+        } catch (APIConnectionException e) {
+            throw e;
+        } catch (APIException e) {
+            throw e;
+        } catch (LobException e) {
+            throw new APIException(e.getMessage(), e);
         }
     }
 
@@ -379,169 +401,190 @@ public abstract class APIResource extends LobObject {
             String apiKey) throws AuthenticationException,
             InvalidRequestException, APIConnectionException,
             APIException {
-        if ((Lob.apiKey == null || Lob.apiKey.length() == 0)
-                && (apiKey == null || apiKey.length() == 0)) {
-            throw new AuthenticationException(
-                    "No API key provided. (HINT: set your API key using 'Lob.apiKey = <API-KEY>'. "
-                            + "You can generate API keys from the Lob web interface. "
-                            + "See https://lob.com/api for details or email support@lob.com if you have questions.");
+        String requestURL = url;
+        Map<String, String> body = null;
+        if (method == RequestMethod.POST) {
+            // transports need name/value pairs to detect "@file" uploads
+            body = FormEncoder.flatten(params);
+        } else {
+            String query = FormEncoder.encode(params);
+            if (query.length() > 0) {
+                requestURL = url + "?" + query;
+            }
         }
+        return send(method, requestURL, body, clazz, apiKey);
+    }
 
-        if (apiKey == null) {
-            apiKey = Lob.apiKey;
+    /*
+     * POST of a typed builder, whose body is written straight from its
+     * fields.
+     */
+    protected static <T> T request(String url, RequestParams params,
+            Class<T> clazz, String apiKey) throws AuthenticationException,
+            InvalidRequestException, APIConnectionException,
+            APIException {
+        return send(RequestMethod.POST, url, params.toBody(), clazz, apiKey);
+    }
+
+    private static <T> T send(RequestMethod method, String requestURL,
+            Map<String, String> body, Class<T> clazz, String apiKey)
+            throws AuthenticationException, InvalidRequestException,
+            APIConnectionException, APIException {
+        apiKey = resolveApiKey(apiKey);
+        if (body != null) {
+            checkFiles(body);
         }
 
-        String query;
+        Map<String, String> headers = getHeaders(apiKey);
+        if (method == RequestMethod.POST) {
+            // kept across retries so a create is only ever performed once
+            headers.put("Idempotency-Key", UUID.randomUUID().toString());
+        }
 
+        LobResponse response = execute(method, requestURL, headers, body, apiKey);
         try {
-            query = createQuery(params);
-        } catch (UnsupportedEncodingException e) {
-            throw new InvalidRequestException("Unable to encode parameters to "
-                    + CHARSET
-                    + ". Please contact support@lob.com for assistance.",
-                    null, e);
+            int rCode = response.getResponseCode();
+            if (rCode < 200 || rCode >= 300) {
+                handleAPIError(response.getResponseBody(), rCode);
+            }
+            // deserialize straight off the wire, without an intermediate String
+            return gson.fromJson(new JsonReader(response.getResponseReader()), clazz);
+        } catch (IOException e) {
+            throw connectionError(e);
+        } catch (JsonIOException e) {
+            throw connectionError(e);
+        } finally {
+            try {
+                response.close();
+            } catch (IOException e) {
+                // connection is discarded by the pool
+            }
         }
+    }
 
-        LobResponse response;
-        try {
-            // HTTPSURLConnection verifies SSL cert by default
-            response = makeURLConnectionRequest(method, url, query, apiKey, params);
-        } catch (ClassCastException ce) {
-            // appengine doesn't have HTTPSConnection, use URLFetch API
-            String appEngineEnv = System.getProperty(
-                    "com.google.appengine.runtime.environment", null);
-            if (appEngineEnv != null) {
-                response = makeAppEngineRequest(method, url, query, apiKey);
-            } else {
-                // non-appengine ClassCastException
-                throw ce;
+    /*
+     * A missing upload would otherwise fail inside the transport, where it
+     * looks like a connection error and is retried.
+     */
+    private static void checkFiles(Map<String, String> body)
+            throws InvalidRequestException {
+        for (Map.Entry<String, String> entry : body.entrySet()) {
+            String value = entry.getValue();
+            if (value.startsWith("@") && !new java.io.File(value.substring(1)).isFile()) {
+                throw new InvalidRequestException("File not found: " + value.substring(1),
+                        entry.getKey(), null);
             }
         }
-        int rCode = response.getResponseCode();
-        String rBody = response.getResponseBody();
-        if (rCode < 200 || rCode >= 300) {
-            handleAPIError(rBody, rCode);
+    }
+
+    private static LobResponse execute(RequestMethod method, String url,
+            Map<String, String> headers, Map<String, String> body, String apiKey)
+            throws APIConnectionException, APIException {
+        RetryPolicy policy = LobHttpClient.retryPolicy();
+        RateLimiter rateLimiter = LobHttpClient.rateLimiter();
+        CircuitBreaker circuitBreaker = LobHttpClient.circuitBreaker();
+        String endpoint = LobHttpClient.endpoint(url);
+        for (int attempt = 1; ; attempt++) {
+            if (rateLimiter != null) {
+                rateLimiter.acquire(apiKey);
+            }
+            if (circuitBreaker != null) {
+                // fails immediately, and is never retried, while open. Taken
+                // last, so that every call it admits is sent and recorded.
+                circuitBreaker.acquire(endpoint);
+            }
+            LobResponse response;
+            long start = System.currentTimeMillis();
+            boolean failed = true;
+            try {
+                response = LobHttpClient.transport().execute(method, url, headers, body);
+                failed = response.getResponseCode() >= 500;
+            } catch (APIConnectionException e) {
+                if (attempt >= policy.getMaxAttempts()) {
+                    throw e;
+                }
+                backoff(policy.delay(attempt, null), e);
+                continue;
+            } finally {
+                if (circuitBreaker != null) {
+                    circuitBreaker.record(endpoint, failed,
+                            System.currentTimeMillis() - start);
+                }
+            }
+            if (rateLimiter != null) {
+                rateLimiter.update(apiKey, response);
+            }
+            if (attempt >= policy.getMaxAttempts()
+                    || !policy.isRetryable(response.getResponseCode())) {
+                return response;
+            }
+            long delay = policy.delay(attempt, response);
+            if (delay < 0) {
+                return response;
+            }
+            try {
+                response.close();
+            } catch (IOException e) {
+                // connection is discarded by the pool
+            }
+            backoff(delay, null);
         }
-        return gson.fromJson(rBody, clazz);
+    }
+
+    private static void backoff(long delay, Throwable cause)
+            throws APIConnectionException {
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIConnectionException("Interrupted while waiting to retry",
+                    cause != null ? cause : e);
+        }
+    }
+
+    static APIConnectionException connectionError(Throwable e) {
+        return new APIConnectionException(
+                String.format(
+                        "Could not connect to Lob (%s). "
+                                + "Please check your internet connection and try again. If this problem persists,"
+                                + "you should check Lob's service status at https://twitter.com/lobstatus,"
+                                + " or let us know at support@lob.com.",
+                        Lob.API_BASE), e);
     }
 
     private static void handleAPIError(String rBody, int rCode)
             throws InvalidRequestException, AuthenticationException,
             APIException {
-        APIResource.Error error = gson.fromJson(rBody,
-                APIResource.ErrorContainer.class).errors.get(0);
+        String message = errorMessage(rBody);
+        if (message == null) {
+            // e.g. an HTML page from a proxy in front of Lob
+            message = String.format("Lob returned HTTP %d", rCode);
+        }
         switch (rCode) {
         case 404:
-            throw new APIException(error.message, null);
+            throw new APIException(message, rCode, null);
         case 401:
-            throw new AuthenticationException(error.message);
+            throw new AuthenticationException(message);
 
         default:
-            throw new APIException(error.message, null);
+            throw new APIException(message, rCode, null);
         }
     }
 
-    /*
-     * This is slower than usual because of reflection but avoids having to
-     * maintain AppEngine-specific JAR
-     */
-    private static LobResponse makeAppEngineRequest(RequestMethod method,
-            String url, String query, String apiKey) throws APIException {
-        String unknownErrorMessage = "Sorry, an unknown error occurred while trying to use the "
-                + "Google App Engine runtime. Please contact support@lob.com for assistance.";
+    private static String errorMessage(String rBody) {
         try {
-            if (method == RequestMethod.GET || method == RequestMethod.DELETE) {
-                url = String.format("%s?%s", url, query);
+            APIResource.ErrorContainer container = gson.fromJson(rBody,
+                    APIResource.ErrorContainer.class);
+            if (container == null || container.errors == null
+                    || container.errors.isEmpty()) {
+                return null;
             }
-            URL fetchURL = new URL(url);
-
-            Class<?> requestMethodClass = Class
-                    .forName("com.google.appengine.api.urlfetch.HTTPMethod");
-            Object httpMethod = requestMethodClass.getDeclaredField(
-                    method.name()).get(null);
-
-            Class<?> fetchOptionsBuilderClass = Class
-                    .forName("com.google.appengine.api.urlfetch.FetchOptions$Builder");
-            Object fetchOptions = null;
-            try {
-                fetchOptions = fetchOptionsBuilderClass.getDeclaredMethod(
-                        "validateCertificate").invoke(null);
-            } catch (NoSuchMethodException e) {
-                System.err
-                        .println("Warning: this App Engine SDK version does not allow verification of SSL certificates;"
-                                + "this exposes you to a MITM attack. Please upgrade your App Engine SDK to >=1.5.0. "
-                                + "If you have questions, contact support@lob.com.");
-                fetchOptions = fetchOptionsBuilderClass.getDeclaredMethod(
-                        "withDefaults").invoke(null);
-            }
-
-            Class<?> fetchOptionsClass = Class
-                    .forName("com.google.appengine.api.urlfetch.FetchOptions");
-
-            // GAE requests can time out after 60 seconds, so make sure we leave
-            // some time for the application to handle a slow Lob
-            fetchOptionsClass.getDeclaredMethod("setDeadline",
-                    java.lang.Double.class)
-                    .invoke(fetchOptions, new Double(55));
-
-            Class<?> requestClass = Class
-                    .forName("com.google.appengine.api.urlfetch.HTTPRequest");
-
-            Object request = requestClass.getDeclaredConstructor(URL.class,
-                    requestMethodClass, fetchOptionsClass).newInstance(
-                    fetchURL, httpMethod, fetchOptions);
-
-            if (method == RequestMethod.POST) {
-                requestClass.getDeclaredMethod("setPayload", byte[].class)
-                        .invoke(request, query.getBytes());
-            }
-
-            for (Map.Entry<String, String> header : getHeaders(apiKey)
-                    .entrySet()) {
-                Class<?> httpHeaderClass = Class
-                        .forName("com.google.appengine.api.urlfetch.HTTPHeader");
-                Object reqHeader = httpHeaderClass.getDeclaredConstructor(
-                        String.class, String.class).newInstance(
-                        header.getKey(), header.getValue());
-                requestClass.getDeclaredMethod("setHeader", httpHeaderClass)
-                        .invoke(request, reqHeader);
-            }
-
-            Class<?> urlFetchFactoryClass = Class
-                    .forName("com.google.appengine.api.urlfetch.URLFetchServiceFactory");
-            Object urlFetchService = urlFetchFactoryClass.getDeclaredMethod(
-                    "getURLFetchService").invoke(null);
-
-            Method fetchMethod = urlFetchService.getClass().getDeclaredMethod(
-                    "fetch", requestClass);
-            fetchMethod.setAccessible(true);
-            Object response = fetchMethod.invoke(urlFetchService, request);
-
-            int responseCode = (Integer) response.getClass()
-                    .getDeclaredMethod("getResponseCode").invoke(response);
-            String body = new String((byte[]) response.getClass()
-                    .getDeclaredMethod("getContent").invoke(response), CHARSET);
-            return new LobResponse(responseCode, body);
-        } catch (InvocationTargetException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (MalformedURLException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (NoSuchFieldException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (SecurityException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (NoSuchMethodException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (ClassNotFoundException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (IllegalArgumentException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (IllegalAccessException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (InstantiationException e) {
-            throw new APIException(unknownErrorMessage, e);
-        } catch (UnsupportedEncodingException e) {
-            throw new APIException(unknownErrorMessage, e);
+            return container.errors.get(0).message;
+        } catch (JsonSyntaxException e) {
+            return null;
         }
     }
 
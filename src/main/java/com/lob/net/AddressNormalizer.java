@@ -0,0 +1,57 @@
+package com.lob.net;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces address params to a canonical string, so that inputs differing
+ * only in case, whitespace or a ZIP+4 suffix map to the same key.
+ *
+ *     {address_line1=" 185 Berry St ", address_zip="94107-1741"}
+ *     -> "address_line1=185 BERRY ST\naddress_zip=94107\n"
+ */
+public final class AddressNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern ZIP_PLUS_4 = Pattern.compile("(\\d{5})[\\s-]?\\d{4}");
+
+    private AddressNormalizer() {
+    }
+
+    public static String normalize(Map<String, ?> params) {
+        if (params == null) {
+            return "";
+        }
+        // sorted, so parameter order does not matter
+        Map<String, String> fields = new TreeMap<String, String>();
+        for (Map.Entry<String, ?> entry : params.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            String value = normalizeValue(entry.getKey(), entry.getValue().toString());
+            if (value.length() > 0) {
+                fields.put(entry.getKey().trim().toLowerCase(Locale.ROOT), value);
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            key.append(field.getKey()).append('=').append(field.getValue()).append('\n');
+        }
+        return key.toString();
+    }
+
+    static String normalizeValue(String name, String value) {
+        String normalized = WHITESPACE.matcher(value.trim()).replaceAll(" ")
+                .toUpperCase(Locale.ROOT);
+        if (name.endsWith("zip")) {
+            Matcher zip = ZIP_PLUS_4.matcher(normalized);
+            if (zip.matches()) {
+                return zip.group(1);
+            }
+        }
+        return normalized;
+    }
+}
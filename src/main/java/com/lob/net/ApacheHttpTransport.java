@@ -0,0 +1,131 @@
+package com.lob.net;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.HttpMultipartMode;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
+
+import com.lob.exception.APIConnectionException;
+
+/**
+ * The default transport: Apache HttpClient on the shared connection pool
+ * managed by {@link LobHttpClient}.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    private static void addHeaders(HttpRequestBase request, String url,
+            Map<String, String> headers) {
+        request.setConfig(LobHttpClient.requestConfig(url));
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            request.addHeader(header.getKey(), header.getValue());
+        }
+    }
+
+    private static ContentType contentTypeOf(java.io.File file) {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(".pdf")) {
+            return ContentType.create("application/pdf");
+        } else if (name.endsWith(".png")) {
+            return ContentType.create("image/png");
+        } else if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return ContentType.create("image/jpeg");
+        }
+        return ContentType.DEFAULT_BINARY;
+    }
+
+    private static HttpPost createPostRequest(String url, Map<String, String> body)
+            throws IOException {
+        HttpPost httppost = new HttpPost(url);
+
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+
+        if (body != null) {
+            for (Map.Entry<String, String> entry : body.entrySet()) {
+                String val = entry.getValue();
+                if (val.startsWith("@")) {
+                    java.io.File file = new java.io.File(val.substring(1));
+                    if (!file.isFile()) {
+                        throw new java.io.FileNotFoundException(file.getPath());
+                    }
+                    // streamed from disk while the request is written
+                    builder.addPart(entry.getKey(),
+                            new FileBody(file, contentTypeOf(file), file.getName()));
+                } else {
+                    builder.addTextBody(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        httppost.setEntity(builder.build());
+        return httppost;
+    }
+
+    public LobResponse execute(APIResource.RequestMethod method, String url,
+            Map<String, String> headers, Map<String, String> body)
+            throws APIConnectionException {
+        CloseableHttpResponse response = null;
+        try {
+            HttpRequestBase request;
+            switch (method) {
+            case GET:
+                request = new HttpGet(url);
+                break;
+            case POST:
+                request = createPostRequest(url, body);
+                break;
+            case DELETE:
+                request = new HttpDelete(url);
+                break;
+            default:
+                throw new APIConnectionException(
+                        String.format(
+                                "Unrecognized HTTP method %s. "
+                                        + "This indicates a bug in the Lob bindings. Please contact "
+                                        + "support@lob.com for assistance.",
+                                method));
+            }
+            addHeaders(request, url, headers);
+
+            response = LobHttpClient.get().execute(request);
+            int rCode = response.getStatusLine().getStatusCode();
+            Map<String, String> responseHeaders = new HashMap<String, String>();
+            for (Header header : response.getAllHeaders()) {
+                responseHeaders.put(header.getName(), header.getValue());
+            }
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                response.close();
+                return new LobResponse(rCode, "", responseHeaders);
+            }
+            // the pooled connection is handed back once the body stream is
+            // read to the end or closed by the caller
+            ContentType contentType = ContentType.get(entity);
+            Charset charset = contentType == null ? null : contentType.getCharset();
+            return new LobResponse(rCode, entity.getContent(),
+                    charset == null ? Consts.UTF_8 : charset, responseHeaders);
+        } catch (IOException e) {
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException closeError) {
+                    // connection is discarded by the pool
+                }
+            }
+            throw APIResource.connectionError(e);
+        }
+    }
+}
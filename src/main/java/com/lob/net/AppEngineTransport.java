@@ -0,0 +1,122 @@
+package com.lob.net;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+
+import com.lob.exception.APIException;
+
+/**
+ * Transport for Google App Engine, which does not allow raw sockets. Requests
+ * go through the URLFetch API.
+ */
+public class AppEngineTransport implements HttpTransport {
+
+    private static final String CHARSET = APIResource.CHARSET;
+
+    /*
+     * This is slower than usual because of reflection but avoids having to
+     * maintain AppEngine-specific JAR
+     */
+    public LobResponse execute(APIResource.RequestMethod method, String url,
+            Map<String, String> headers, Map<String, String> body)
+            throws APIException {
+        String unknownErrorMessage = "Sorry, an unknown error occurred while trying to use the "
+                + "Google App Engine runtime. Please contact support@lob.com for assistance.";
+        try {
+            URL fetchURL = new URL(url);
+
+            Class<?> requestMethodClass = Class
+                    .forName("com.google.appengine.api.urlfetch.HTTPMethod");
+            Object httpMethod = requestMethodClass.getDeclaredField(
+                    method.name()).get(null);
+
+            Class<?> fetchOptionsBuilderClass = Class
+                    .forName("com.google.appengine.api.urlfetch.FetchOptions$Builder");
+            Object fetchOptions = null;
+            try {
+                fetchOptions = fetchOptionsBuilderClass.getDeclaredMethod(
+                        "validateCertificate").invoke(null);
+            } catch (NoSuchMethodException e) {
+                System.err
+                        .println("Warning: this App Engine SDK version does not allow verification of SSL certificates;"
+                                + "this exposes you to a MITM attack. Please upgrade your App Engine SDK to >=1.5.0. "
+                                + "If you have questions, contact support@lob.com.");
+                fetchOptions = fetchOptionsBuilderClass.getDeclaredMethod(
+                        "withDefaults").invoke(null);
+            }
+
+            Class<?> fetchOptionsClass = Class
+                    .forName("com.google.appengine.api.urlfetch.FetchOptions");
+
+            // GAE requests can time out after 60 seconds, so make sure we leave
+            // some time for the application to handle a slow Lob
+            fetchOptionsClass.getDeclaredMethod("setDeadline",
+                    java.lang.Double.class)
+                    .invoke(fetchOptions, new Double(55));
+
+            Class<?> requestClass = Class
+                    .forName("com.google.appengine.api.urlfetch.HTTPRequest");
+
+            Object request = requestClass.getDeclaredConstructor(URL.class,
+                    requestMethodClass, fetchOptionsClass).newInstance(
+                    fetchURL, httpMethod, fetchOptions);
+
+            if (method == APIResource.RequestMethod.POST) {
+                requestClass.getDeclaredMethod("setPayload", byte[].class)
+                        .invoke(request, FormEncoder.encodeFlat(body));
+                headers = new java.util.HashMap<String, String>(headers);
+                headers.put("Content-Type", "application/x-www-form-urlencoded");
+            }
+
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                Class<?> httpHeaderClass = Class
+                        .forName("com.google.appengine.api.urlfetch.HTTPHeader");
+                Object reqHeader = httpHeaderClass.getDeclaredConstructor(
+                        String.class, String.class).newInstance(
+                        header.getKey(), header.getValue());
+                requestClass.getDeclaredMethod("setHeader", httpHeaderClass)
+                        .invoke(request, reqHeader);
+            }
+
+            Class<?> urlFetchFactoryClass = Class
+                    .forName("com.google.appengine.api.urlfetch.URLFetchServiceFactory");
+            Object urlFetchService = urlFetchFactoryClass.getDeclaredMethod(
+                    "getURLFetchService").invoke(null);
+
+            Method fetchMethod = urlFetchService.getClass().getDeclaredMethod(
+                    "fetch", requestClass);
+            fetchMethod.setAccessible(true);
+            Object response = fetchMethod.invoke(urlFetchService, request);
+
+            int responseCode = (Integer) response.getClass()
+                    .getDeclaredMethod("getResponseCode").invoke(response);
+            String responseBody = new String((byte[]) response.getClass()
+                    .getDeclaredMethod("getContent").invoke(response), CHARSET);
+            return new LobResponse(responseCode, responseBody);
+        } catch (InvocationTargetException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (MalformedURLException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (NoSuchFieldException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (SecurityException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (NoSuchMethodException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (ClassNotFoundException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (IllegalArgumentException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (IllegalAccessException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (InstantiationException e) {
+            throw new APIException(unknownErrorMessage, e);
+        } catch (UnsupportedEncodingException e) {
+            throw new APIException(unknownErrorMessage, e);
+        }
+    }
+}
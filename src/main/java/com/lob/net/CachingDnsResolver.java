@@ -0,0 +1,123 @@
+package com.lob.net;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+/**
+ * DNS resolver with its own TTL-bounded address cache, used by the Lob
+ * connection pool instead of touching the JVM-wide DNS cache settings.
+ *
+ * Once an entry is past half of its TTL the next lookup still returns the
+ * cached addresses and triggers a refresh in the background, so a host in
+ * steady use is never resolved on the request thread. An entry past its
+ * full TTL is resolved synchronously; if that fails, the stale addresses are
+ * used rather than failing the request.
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    public static final long DEFAULT_TTL = 60000; // 60 seconds
+
+    private final DnsResolver delegate;
+    private volatile long ttl;
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+    private ExecutorService refresher;
+
+    public CachingDnsResolver() {
+        this(SystemDefaultDnsResolver.INSTANCE, DEFAULT_TTL);
+    }
+
+    public CachingDnsResolver(DnsResolver delegate, long ttl) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+    }
+
+    public void setTtl(long millis) {
+        this.ttl = millis;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        Entry entry = cache.get(host);
+        long now = System.currentTimeMillis();
+        if (entry != null) {
+            long age = now - entry.resolvedAt;
+            if (age < ttl / 2) {
+                return entry.addresses;
+            }
+            if (age < ttl) {
+                refreshInBackground(host, entry);
+                return entry.addresses;
+            }
+        }
+        try {
+            return lookup(host);
+        } catch (UnknownHostException e) {
+            if (entry != null) {
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+
+    private InetAddress[] lookup(String host) throws UnknownHostException {
+        InetAddress[] addresses = delegate.resolve(host);
+        cache.put(host, new Entry(addresses, System.currentTimeMillis()));
+        return addresses;
+    }
+
+    private void refreshInBackground(final String host, final Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher().execute(new Runnable() {
+            public void run() {
+                try {
+                    lookup(host);
+                } catch (UnknownHostException e) {
+                    // keep serving the cached addresses
+                    entry.refreshing.set(false);
+                }
+            }
+        });
+    }
+
+    private synchronized ExecutorService refresher() {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "lob-dns-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return refresher;
+    }
+
+    private static class Entry {
+        final InetAddress[] addresses;
+        final long resolvedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(InetAddress[] addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.lob.net;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lob.exception.CircuitOpenException;
+
+/**
+ * Per-endpoint circuit breaker around the Lob transport.
+ *
+ * Outcomes of the last {@code windowSize} calls to an endpoint are kept.
+ * Once at least half the window has been recorded and either the failure
+ * rate (connection errors and 5xx responses) or the slow-call rate reaches
+ * its threshold, the circuit opens and calls fail immediately with a
+ * {@link CircuitOpenException}. After {@code openDuration} a few probe calls
+ * are let through; if they all succeed the circuit closes again, otherwise
+ * it re-opens.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int HALF_OPEN_CALLS = 3;
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDuration;
+    private final int windowSize;
+    private final long openDuration;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>();
+
+    public CircuitBreaker() {
+        this(0.5, 0.8, 10000, 20, 30000);
+    }
+
+    /**
+     * @param failureRateThreshold  fraction of failed calls that opens the circuit
+     * @param slowCallRateThreshold fraction of slow calls that opens the circuit
+     * @param slowCallDuration      calls taking longer than this many
+     *                              milliseconds count as slow
+     * @param windowSize            number of recent calls considered
+     * @param openDuration          milliseconds to stay open before probing
+     */
+    public CircuitBreaker(double failureRateThreshold, double slowCallRateThreshold,
+            long slowCallDuration, int windowSize, long openDuration) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("windowSize must be at least 2");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.windowSize = windowSize;
+        this.openDuration = openDuration;
+    }
+
+    public State getState(String endpoint) {
+        return circuit(endpoint).state();
+    }
+
+    /**
+     * Throws if the endpoint's circuit does not currently admit a call.
+     */
+    public void acquire(String endpoint) throws CircuitOpenException {
+        if (!circuit(endpoint).tryAcquire()) {
+            throw new CircuitOpenException(String.format(
+                    "Circuit for Lob endpoint '%s' is open after repeated failures; "
+                            + "not sending the request.", endpoint));
+        }
+    }
+
+    /**
+     * Records the outcome of a call previously admitted by {@link #acquire}.
+     */
+    public void record(String endpoint, boolean failed, long durationMillis) {
+        circuit(endpoint).record(failed, durationMillis >= slowCallDuration);
+    }
+
+    private Circuit circuit(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        if (circuit == null) {
+            Circuit created = new Circuit();
+            circuit = circuits.putIfAbsent(endpoint, created);
+            if (circuit == null) {
+                circuit = created;
+            }
+        }
+        return circuit;
+    }
+
+    private class Circuit {
+        private State state = State.CLOSED;
+        private final boolean[] failures = new boolean[windowSize];
+        private final boolean[] slows = new boolean[windowSize];
+        private int recorded;
+        private int next;
+        private int failureCount;
+        private int slowCount;
+        private long openedAt;
+        private int probesIssued;
+        private int probesSucceeded;
+
+        synchronized State state() {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDuration) {
+                state = State.HALF_OPEN;
+                probesIssued = 0;
+                probesSucceeded = 0;
+            }
+            return state;
+        }
+
+        synchronized boolean tryAcquire() {
+            switch (state()) {
+            case OPEN:
+                return false;
+            case HALF_OPEN:
+                if (probesIssued >= HALF_OPEN_CALLS) {
+                    return false;
+                }
+                probesIssued++;
+                return true;
+            default:
+                return true;
+            }
+        }
+
+        synchronized void record(boolean failed, boolean slow) {
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    open();
+                } else if (++probesSucceeded >= HALF_OPEN_CALLS) {
+                    reset();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+
+            if (recorded == windowSize) {
+                if (failures[next]) {
+                    failureCount--;
+                }
+                if (slows[next]) {
+                    slowCount--;
+                }
+            } else {
+                recorded++;
+            }
+            failures[next] = failed;
+            slows[next] = slow;
+            if (failed) {
+                failureCount++;
+            }
+            if (slow) {
+                slowCount++;
+            }
+            next = (next + 1) % windowSize;
+
+            if (recorded >= windowSize / 2
+                    && ((double) failureCount / recorded >= failureRateThreshold
+                    || (double) slowCount / recorded >= slowCallRateThreshold)) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+
+        private void reset() {
+            state = State.CLOSED;
+            recorded = 0;
+            next = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+    }
+}
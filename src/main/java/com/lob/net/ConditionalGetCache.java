@@ -0,0 +1,158 @@
+package com.lob.net;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response cache for single-resource GETs, following HTTP validation
+ * semantics.
+ *
+ * When a response carries an ETag or Last-Modified header, the parsed object
+ * is stored together with those validators. The next GET for the same URL
+ * sends If-None-Match / If-Modified-Since, and a 304 Not Modified answer is
+ * served from the stored object without reading or parsing a body. Every
+ * read still goes to the API, so cached objects are never stale.
+ *
+ * The cache is bounded by the total size of the response bodies it stands
+ * for (4 MB by default) and evicts the least recently used entries first.
+ */
+public final class ConditionalGetCache {
+
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static volatile boolean enabled = true;
+    private static long maxBytes = DEFAULT_MAX_BYTES;
+    private static long bytes;
+    private static long hits;
+    private static long misses;
+
+    private static final LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private ConditionalGetCache() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ConditionalGetCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static synchronized void setMaxBytes(long maxBytes) {
+        ConditionalGetCache.maxBytes = maxBytes;
+        trim();
+    }
+
+    public static synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Size of the response bodies currently represented in the cache.
+     */
+    public static synchronized long bytes() {
+        return bytes;
+    }
+
+    public static synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of 304 responses answered from the cache.
+     */
+    public static synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Number of full responses received for URLs eligible for caching.
+     */
+    public static synchronized long misses() {
+        return misses;
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    static synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    static synchronized void hit() {
+        hits++;
+    }
+
+    static synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.size;
+        }
+    }
+
+    /*
+     * Stores a freshly parsed 200 response, if it can be revalidated later.
+     */
+    static void put(String key, LobResponse response, String body, Object value) {
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        String cacheControl = response.getHeader("Cache-Control");
+        boolean storable = (etag != null || lastModified != null)
+                && (cacheControl == null || !cacheControl.toLowerCase().contains("no-store"));
+        long size = body.getBytes(UTF_8).length;
+        synchronized (ConditionalGetCache.class) {
+            misses++;
+            remove(key);
+            if (!enabled || !storable || size > maxBytes) {
+                return;
+            }
+            entries.put(key, new Entry(etag, lastModified, value, size));
+            bytes += size;
+            trim();
+        }
+    }
+
+    private static void trim() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+        }
+    }
+
+    static class Entry {
+        final String etag;
+        final String lastModified;
+        final Object value;
+        final long size;
+
+        Entry(String etag, String lastModified, Object value, long size) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+            this.size = size;
+        }
+
+        void addValidators(Map<String, String> headers) {
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.lob.net;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+
+/**
+ * An in-process stand-in for the Lob API, for load tests and offline
+ * benchmarks.
+ *
+ * Created resources are kept in memory and can be retrieved, listed and
+ * deleted. Retrieves carry an ETag and answer a matching If-None-Match with
+ * 304 Not Modified. Every call sleeps for the configured latency plus a random
+ * jitter before answering, to approximate a network round trip.
+ *
+ *     LobHttpClient.setTransport(new FakeLobTransport(40, 20));
+ */
+public class FakeLobTransport implements HttpTransport {
+
+    private static final Map<String, String> ID_PREFIXES = new HashMap<String, String>();
+    static {
+        ID_PREFIXES.put("addresses", "adr");
+        ID_PREFIXES.put("postcards", "psc");
+        ID_PREFIXES.put("checks", "chk");
+        ID_PREFIXES.put("jobs", "job");
+        ID_PREFIXES.put("objects", "obj");
+        ID_PREFIXES.put("bank_accounts", "bank");
+        ID_PREFIXES.put("areas", "area");
+    }
+
+    private static final List<String> CATALOGS = Arrays.asList(
+            "countries", "states", "settings", "services", "packagings");
+
+    private final long latency;
+    private final long jitter;
+    private final Random random = new Random();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong requestCount = new AtomicLong();
+    private final ConcurrentMap<String, ConcurrentMap<String, Map<String, Object>>> resources =
+            new ConcurrentHashMap<String, ConcurrentMap<String, Map<String, Object>>>();
+
+    public FakeLobTransport() {
+        this(0, 0);
+    }
+
+    /**
+     * @param latency fixed delay added to every call, in milliseconds
+     * @param jitter  upper bound of an additional random delay, in milliseconds
+     */
+    public FakeLobTransport(long latency, long jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Number of requests answered so far.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public LobResponse execute(APIResource.RequestMethod method, String url,
+            Map<String, String> headers, Map<String, String> body)
+            throws APIConnectionException {
+        requestCount.incrementAndGet();
+        sleep();
+
+        String authorization = headers.get("Authorization");
+        if (authorization == null || !authorization.startsWith("Basic ")) {
+            return error(401, "Missing authentication");
+        }
+
+        String path = url;
+        Map<String, String> query = Collections.emptyMap();
+        int queryStart = url.indexOf('?');
+        if (queryStart >= 0) {
+            path = url.substring(0, queryStart);
+            query = parseQuery(url.substring(queryStart + 1));
+        }
+        String prefix = Lob.API_BASE + "/v1/";
+        if (!path.startsWith(prefix)) {
+            return error(404, "Not found");
+        }
+        String[] segments = path.substring(prefix.length()).split("/");
+        String resource = segments[0];
+        String id = segments.length > 1 ? segments[1] : null;
+
+        if ("verify".equals(resource) && method == APIResource.RequestMethod.POST) {
+            return verify(body);
+        }
+        if ("routes".equals(resource) && method == APIResource.RequestMethod.GET) {
+            return routes(query);
+        }
+        if (CATALOGS.contains(resource) && method == APIResource.RequestMethod.GET) {
+            return catalog(resource, id);
+        }
+        if (!ID_PREFIXES.containsKey(resource)) {
+            return error(404, "Not found");
+        }
+
+        switch (method) {
+        case POST:
+            return id == null ? create(resource, body) : error(404, "Not found");
+        case GET:
+            return id == null ? list(resource, query)
+                    : retrieve(resource, id, headers.get("If-None-Match"));
+        case DELETE:
+            return id == null ? error(404, "Not found") : delete(resource, id);
+        default:
+            return error(405, "Method not allowed");
+        }
+    }
+
+    private void sleep() throws APIConnectionException {
+        long delay = latency;
+        if (jitter > 0) {
+            synchronized (random) {
+                delay += (long) (random.nextDouble() * jitter);
+            }
+        }
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIConnectionException("Interrupted while waiting for fake Lob", e);
+        }
+    }
+
+    private ConcurrentMap<String, Map<String, Object>> store(String resource) {
+        ConcurrentMap<String, Map<String, Object>> store = resources.get(resource);
+        if (store == null) {
+            ConcurrentMap<String, Map<String, Object>> created =
+                    new ConcurrentHashMap<String, Map<String, Object>>();
+            store = resources.putIfAbsent(resource, created);
+            if (store == null) {
+                store = created;
+            }
+        }
+        return store;
+    }
+
+    private LobResponse create(String resource, Map<String, String> body) {
+        Map<String, Object> object = unflatten(body);
+        String id = String.format("%s_%016x", ID_PREFIXES.get(resource), nextId.getAndIncrement());
+        String now = timestamp();
+        object.put("id", id);
+        object.put("object", singular(resource));
+        object.put("date_created", now);
+        object.put("date_modified", now);
+        store(resource).put(id, object);
+        return ok(object);
+    }
+
+    private LobResponse retrieve(String resource, String id, String ifNoneMatch) {
+        Map<String, Object> object = store(resource).get(id);
+        if (object == null) {
+            return error(404, singular(resource) + " not found");
+        }
+        String json = APIResource.gson.toJson(object);
+        String etag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+        Map<String, String> headers = Collections.singletonMap("ETag", etag);
+        if (etag.equals(ifNoneMatch)) {
+            return new LobResponse(304, "", headers);
+        }
+        return new LobResponse(200, json, headers);
+    }
+
+    private LobResponse delete(String resource, String id) {
+        Map<String, Object> object = store(resource).get(id);
+        if (object == null) {
+            return error(404, singular(resource) + " not found");
+        }
+        object.put("deleted", 1);
+        Map<String, Object> status = new HashMap<String, Object>();
+        status.put("deleted", 1);
+        return ok(status);
+    }
+
+    private LobResponse list(String resource, Map<String, String> query) {
+        int count = parseInt(query.get("count"), 10);
+        int offset = parseInt(query.get("offset"), 0);
+        if (count > 100) {
+            return error(422, "count must be less than or equal to 100");
+        }
+
+        List<Map<String, Object>> all = new ArrayList<Map<String, Object>>(store(resource).values());
+        Collections.sort(all, new java.util.Comparator<Map<String, Object>>() {
+            public int compare(Map<String, Object> a, Map<String, Object> b) {
+                return ((String) a.get("id")).compareTo((String) b.get("id"));
+            }
+        });
+        int from = Math.min(offset, all.size());
+        int to = Math.min(offset + count, all.size());
+        List<Map<String, Object>> data = all.subList(from, to);
+
+        Map<String, Object> collection = new LinkedHashMap<String, Object>();
+        collection.put("object", "list");
+        collection.put("data", data);
+        collection.put("count", data.size());
+        if (to < all.size()) {
+            collection.put("next_url", String.format("%s/v1/%s?count=%d&offset=%d",
+                    Lob.API_BASE, resource, count, to));
+        }
+        if (from > 0) {
+            collection.put("previous_url", String.format("%s/v1/%s?count=%d&offset=%d",
+                    Lob.API_BASE, resource, count, Math.max(0, from - count)));
+        }
+        return ok(collection);
+    }
+
+    private LobResponse verify(Map<String, String> body) {
+        Map<String, Object> address = new LinkedHashMap<String, Object>();
+        for (String field : Arrays.asList("address_line1", "address_line2",
+                "address_city", "address_state", "address_zip", "address_country")) {
+            String value = body == null ? null : body.get(field);
+            address.put(field, value == null ? "" : value.trim().toUpperCase());
+        }
+        if ("".equals(address.get("address_country"))) {
+            address.put("address_country", "US");
+        }
+        address.put("object", "address");
+        Map<String, Object> verify = new HashMap<String, Object>();
+        verify.put("address", address);
+        return ok(verify);
+    }
+
+    private LobResponse routes(Map<String, String> query) {
+        List<Map<String, Object>> data = new ArrayList<Map<String, Object>>();
+        for (int index = 0; query.containsKey("zip_codes[" + index + "]"); index++) {
+            String zip = query.get("zip_codes[" + index + "]");
+            if (!zip.matches("\\d{5}") || zip.startsWith("9999")) {
+                return error(422, "invalid zip code " + zip);
+            }
+            Map<String, Object> route = new LinkedHashMap<String, Object>();
+            route.put("route", "C001");
+            route.put("residential", Integer.parseInt(zip.substring(2)) % 700);
+            route.put("business", Integer.parseInt(zip.substring(3)) % 40);
+            route.put("object", "route");
+            Map<String, Object> zipCode = new LinkedHashMap<String, Object>();
+            zipCode.put("zip_code", zip);
+            zipCode.put("routes", Collections.singletonList(route));
+            zipCode.put("object", "zip_code");
+            data.add(zipCode);
+        }
+        Map<String, Object> collection = new LinkedHashMap<String, Object>();
+        collection.put("object", "list");
+        collection.put("data", data);
+        return ok(collection);
+    }
+
+    private LobResponse catalog(String resource, String id) {
+        List<Map<String, Object>> data = new ArrayList<Map<String, Object>>();
+        for (int i = 1; i <= 3; i++) {
+            Map<String, Object> entry = new LinkedHashMap<String, Object>();
+            entry.put("id", String.valueOf(i));
+            entry.put("name", singular(resource) + " " + i);
+            entry.put("short_name", singular(resource).substring(0, 2).toUpperCase() + i);
+            entry.put("object", singular(resource));
+            if (id != null && id.equals(entry.get("id"))) {
+                return ok(entry);
+            }
+            data.add(entry);
+        }
+        if (id != null) {
+            return error(404, singular(resource) + " not found");
+        }
+        Map<String, Object> collection = new LinkedHashMap<String, Object>();
+        collection.put("object", "list");
+        collection.put("data", data);
+        collection.put("count", data.size());
+        return ok(collection);
+    }
+
+    private static String singular(String resource) {
+        if (resource.endsWith("ies")) {
+            return resource.substring(0, resource.length() - 3) + "y";
+        }
+        if (resource.endsWith("sses")) {
+            return resource.substring(0, resource.length() - 2);
+        }
+        return resource.substring(0, resource.length() - 1);
+    }
+
+    /*
+     * Turns flattened form fields such as to[name] back into nested maps.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> unflatten(Map<String, String> body) {
+        Map<String, Object> object = new LinkedHashMap<String, Object>();
+        if (body == null) {
+            return object;
+        }
+        for (Map.Entry<String, String> entry : body.entrySet()) {
+            String[] keys = entry.getKey().replace("]", "").split("\\[");
+            Map<String, Object> target = object;
+            for (int i = 0; i < keys.length - 1; i++) {
+                Object nested = target.get(keys[i]);
+                if (!(nested instanceof Map)) {
+                    nested = new LinkedHashMap<String, Object>();
+                    target.put(keys[i], nested);
+                }
+                target = (Map<String, Object>) nested;
+            }
+            String value = entry.getValue();
+            target.put(keys[keys.length - 1], "".equals(value) ? null : value);
+        }
+        return object;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<String, String>();
+        for (String pair : query.split("&")) {
+            if (pair.length() == 0) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            try {
+                String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), APIResource.CHARSET);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), APIResource.CHARSET);
+                params.put(key, value);
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return params;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String timestamp() {
+        return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS").format(new Date());
+    }
+
+    private static LobResponse ok(Object body) {
+        return new LobResponse(200, APIResource.gson.toJson(body));
+    }
+
+    private static LobResponse error(int status, String message) {
+        Map<String, Object> error = new HashMap<String, Object>();
+        error.put("message", message);
+        error.put("status_code", status);
+        Map<String, Object> container = new HashMap<String, Object>();
+        container.put("errors", Collections.singletonList(error));
+        return new LobResponse(status, APIResource.gson.toJson(container));
+    }
+}
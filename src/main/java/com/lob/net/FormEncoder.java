@@ -0,0 +1,270 @@
+package com.lob.net;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lob.exception.InvalidRequestException;
+
+/**
+ * Flattens and form-encodes request params in a single pass.
+ *
+ * Nested maps become bracketed keys ({@code to[address_line1]}) without
+ * building an intermediate map per level, and values are percent-encoded as
+ * UTF-8 straight into a per-thread byte buffer that is reused from one
+ * request to the next. Field names come from a small, fixed vocabulary, so
+ * the encoded bytes of each key segment are cached and copied rather than
+ * encoded again. The output matches {@code URLEncoder} with UTF-8: letters,
+ * digits and {@code .-*_} are left as they are, a space becomes '+', and
+ * everything else is escaped.
+ */
+final class FormEncoder {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(ASCII);
+    private static final byte[] OPEN = "%5B".getBytes(ASCII);
+    private static final byte[] CLOSE = "%5D".getBytes(ASCII);
+
+    // bounds the key cache should callers send arbitrary keys
+    private static final int MAX_CACHED_KEYS = 4096;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ConcurrentMap<String, byte[]> encodedKeys =
+            new ConcurrentHashMap<String, byte[]>();
+
+    private static final ThreadLocal<Buffer> buffers = new ThreadLocal<Buffer>() {
+        @Override
+        protected Buffer initialValue() {
+            return new Buffer();
+        }
+    };
+
+    private FormEncoder() {
+    }
+
+    /**
+     * The params as a query string, nested maps flattened.
+     */
+    static String encode(Map<String, ?> params) throws InvalidRequestException {
+        Buffer out = buffers.get();
+        out.reset();
+        if (params != null) {
+            writeParams(params, out, null, null, 0);
+        }
+        return out.toAsciiString();
+    }
+
+    /**
+     * Already-flat params as form-encoded bytes, for a request body.
+     */
+    static byte[] encodeFlat(Map<String, String> flatParams) {
+        Buffer out = buffers.get();
+        out.reset();
+        for (Map.Entry<String, String> entry : flatParams.entrySet()) {
+            out.separator();
+            writeEncoded(entry.getKey(), out);
+            out.write('=');
+            writeEncoded(entry.getValue(), out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The params with nested maps flattened to bracketed keys.
+     */
+    static Map<String, String> flatten(Map<String, ?> params) throws InvalidRequestException {
+        Map<String, String> flatParams = new HashMap<String, String>();
+        if (params != null) {
+            flatten(params, new StringBuilder(), 0, flatParams);
+        }
+        return flatParams;
+    }
+
+    private static void flatten(Map<?, ?> params, StringBuilder key, int depth,
+            Map<String, String> flatParams) throws InvalidRequestException {
+        int mark = key.length();
+        for (Map.Entry<?, ?> entry : params.entrySet()) {
+            appendKey(key, entry.getKey(), depth);
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?>) {
+                flatten((Map<?, ?>) value, key, depth + 1, flatParams);
+            } else {
+                flatParams.put(key.toString(), stringValue(key, value));
+            }
+            key.setLength(mark);
+        }
+    }
+
+    /*
+     * keys and path hold the plain and encoded names of the enclosing maps;
+     * depth of them are in use.
+     */
+    private static void writeParams(Map<?, ?> params, Buffer out, Object[] keys,
+            byte[][] path, int depth) throws InvalidRequestException {
+        for (Map.Entry<?, ?> entry : params.entrySet()) {
+            byte[] segment = encodedKey(String.valueOf(entry.getKey()));
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?>) {
+                if (path == null) {
+                    keys = new Object[4];
+                    path = new byte[4][];
+                } else if (depth == path.length) {
+                    keys = Arrays.copyOf(keys, depth * 2);
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                keys[depth] = entry.getKey();
+                path[depth] = segment;
+                writeParams((Map<?, ?>) value, out, keys, path, depth + 1);
+                continue;
+            }
+            if ("".equals(value)) {
+                // the plain key is only built to report it
+                StringBuilder key = new StringBuilder();
+                for (int i = 0; i < depth; i++) {
+                    appendKey(key, keys[i], i);
+                }
+                appendKey(key, entry.getKey(), depth);
+                stringValue(key, value);
+            }
+            out.separator();
+            for (int i = 0; i < depth; i++) {
+                writeSegment(path[i], i, out);
+            }
+            writeSegment(segment, depth, out);
+            out.write('=');
+            if (value != null) {
+                writeEncoded(value.toString(), out);
+            }
+        }
+    }
+
+    private static void writeSegment(byte[] segment, int depth, Buffer out) {
+        if (depth == 0) {
+            out.write(segment);
+        } else {
+            out.write(OPEN);
+            out.write(segment);
+            out.write(CLOSE);
+        }
+    }
+
+    private static void appendKey(StringBuilder key, Object segment, int depth) {
+        if (depth == 0) {
+            key.append(segment);
+        } else {
+            key.append('[').append(segment).append(']');
+        }
+    }
+
+    static String stringValue(CharSequence key, Object value)
+            throws InvalidRequestException {
+        if ("".equals(value)) {
+            throw new InvalidRequestException("You cannot set '"+key+"' to an empty string. "+
+                              "We interpret empty strings as null in requests. "+
+                              "You may set '"+key+"' to null to delete the property.",
+                              key.toString(), null);
+        }
+        return value == null ? "" : value.toString();
+    }
+
+    private static byte[] encodedKey(String key) {
+        byte[] encoded = encodedKeys.get(key);
+        if (encoded == null) {
+            Buffer scratch = new Buffer();
+            writeEncoded(key, scratch);
+            encoded = scratch.toByteArray();
+            if (encodedKeys.size() < MAX_CACHED_KEYS) {
+                encodedKeys.putIfAbsent(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    private static void writeEncoded(String s, Buffer out) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-' || c == '*' || c == '_') {
+                out.write(c);
+            } else if (c == ' ') {
+                out.write('+');
+            } else if (c < 0x80) {
+                writeEscaped(c, out);
+            } else if (c < 0x800) {
+                writeEscaped(0xC0 | (c >> 6), out);
+                writeEscaped(0x80 | (c & 0x3F), out);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                writeEscaped(0xF0 | (codePoint >> 18), out);
+                writeEscaped(0x80 | ((codePoint >> 12) & 0x3F), out);
+                writeEscaped(0x80 | ((codePoint >> 6) & 0x3F), out);
+                writeEscaped(0x80 | (codePoint & 0x3F), out);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate: replaced like String.getBytes does
+                writeEscaped('?', out);
+            } else {
+                writeEscaped(0xE0 | (c >> 12), out);
+                writeEscaped(0x80 | ((c >> 6) & 0x3F), out);
+                writeEscaped(0x80 | (c & 0x3F), out);
+            }
+        }
+    }
+
+    private static void writeEscaped(int b, Buffer out) {
+        out.write('%');
+        out.write(HEX[(b >> 4) & 0xF]);
+        out.write(HEX[b & 0xF]);
+    }
+
+    /*
+     * A growable byte array, kept per thread and trimmed back if one large
+     * request inflated it.
+     */
+    private static final class Buffer {
+        private byte[] bytes = new byte[1024];
+        private int count;
+
+        void reset() {
+            if (bytes.length > MAX_RETAINED_BUFFER) {
+                bytes = new byte[1024];
+            }
+            count = 0;
+        }
+
+        void separator() {
+            if (count > 0) {
+                write('&');
+            }
+        }
+
+        void write(int b) {
+            if (count == bytes.length) {
+                bytes = Arrays.copyOf(bytes, count * 2);
+            }
+            bytes[count++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            if (count + b.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + b.length));
+            }
+            System.arraycopy(b, 0, bytes, count, b.length);
+            count += b.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, count);
+        }
+
+        @SuppressWarnings("deprecation")
+        String toAsciiString() {
+            // the output is all ASCII, so this skips the charset decoder
+            return new String(bytes, 0, 0, count);
+        }
+    }
+}
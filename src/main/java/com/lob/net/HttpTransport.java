@@ -0,0 +1,27 @@
+package com.lob.net;
+
+import java.util.Map;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+
+/**
+ * Performs the HTTP exchange for a single Lob request.
+ *
+ * Implementations are registered with {@link LobHttpClient#setTransport}
+ * and must be safe for concurrent use.
+ */
+public interface HttpTransport {
+
+    /**
+     * @param method  the HTTP method
+     * @param url     the full request URL, including the query string for
+     *                GET and DELETE requests
+     * @param headers the headers to send, including Authorization
+     * @param body    flattened form fields for POST requests, null otherwise.
+     *                A value starting with "@" names a file to upload.
+     */
+    LobResponse execute(APIResource.RequestMethod method, String url,
+            Map<String, String> headers, Map<String, String> body)
+            throws APIConnectionException, APIException;
+}
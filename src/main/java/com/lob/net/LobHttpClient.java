@@ -0,0 +1,390 @@
+package com.lob.net;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Holds the long-lived, pooled HTTP client shared by every Lob request.
+ *
+ * The pool is created lazily on first use. Its limits may be changed at any
+ * time; changes are applied to the live pool.
+ */
+public final class LobHttpClient {
+
+    public static final int DEFAULT_MAX_TOTAL = 20;
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    public static final long DEFAULT_IDLE_TIMEOUT = 30000; // 30 seconds
+    public static final long DEFAULT_KEEP_ALIVE = 60000; // 60 seconds
+    public static final int DEFAULT_CONNECT_TIMEOUT = 30000; // 30 seconds
+    public static final int DEFAULT_READ_TIMEOUT = 80000; // 80 seconds
+
+    private static int maxTotal = DEFAULT_MAX_TOTAL;
+    private static int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+    private static volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private static volatile long keepAlive = DEFAULT_KEEP_ALIVE;
+    private static volatile RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(DEFAULT_CONNECT_TIMEOUT)
+            .setConnectionRequestTimeout(DEFAULT_CONNECT_TIMEOUT)
+            .setSocketTimeout(DEFAULT_READ_TIMEOUT)
+            .build();
+
+    private static final CachingDnsResolver dnsResolver = new CachingDnsResolver();
+
+    private static PoolingHttpClientConnectionManager connectionManager;
+    private static CloseableHttpClient httpClient;
+    private static IdleConnectionEvictor evictor;
+    private static volatile RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+    private static volatile RateLimiter rateLimiter;
+    private static volatile CircuitBreaker circuitBreaker;
+    private static volatile boolean coalesceGets;
+    private static final ConcurrentMap<String, int[]> endpointTimeouts =
+            new ConcurrentHashMap<String, int[]>();
+    private static volatile HttpTransport transport;
+    private static HttpTransport defaultTransport;
+    private static Executor asyncExecutor;
+    private static ThreadPoolExecutor defaultAsyncExecutor;
+
+    private LobHttpClient() {
+    }
+
+    static synchronized CloseableHttpClient get() {
+        if (httpClient == null) {
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+                    .build();
+            connectionManager = new PoolingHttpClientConnectionManager(registry, dnsResolver);
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+            httpClient = HttpClientBuilder.create()
+                    .setConnectionManager(connectionManager)
+                    .setKeepAliveStrategy(new KeepAliveStrategy())
+                    .useSystemProperties()
+                    .build();
+
+            evictor = new IdleConnectionEvictor(connectionManager);
+            evictor.start();
+        }
+        return httpClient;
+    }
+
+    public static synchronized void setMaxTotal(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max total must be positive");
+        }
+        maxTotal = max;
+        if (connectionManager != null) {
+            connectionManager.setMaxTotal(max);
+        }
+        if (defaultAsyncExecutor != null) {
+            if (max > defaultAsyncExecutor.getMaximumPoolSize()) {
+                defaultAsyncExecutor.setMaximumPoolSize(max);
+                defaultAsyncExecutor.setCorePoolSize(max);
+            } else {
+                defaultAsyncExecutor.setCorePoolSize(max);
+                defaultAsyncExecutor.setMaximumPoolSize(max);
+            }
+        }
+    }
+
+    public static synchronized void setMaxPerRoute(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max per route must be positive");
+        }
+        maxPerRoute = max;
+        if (connectionManager != null) {
+            connectionManager.setDefaultMaxPerRoute(max);
+        }
+    }
+
+    /**
+     * Connections idle for longer than this are closed by a background
+     * thread.
+     */
+    public static void setIdleTimeout(long millis) {
+        idleTimeout = millis;
+    }
+
+    /**
+     * How long to keep a connection alive when the server does not send a
+     * Keep-Alive header.
+     */
+    public static void setKeepAlive(long millis) {
+        keepAlive = millis;
+    }
+
+    /**
+     * How long resolved addresses of the Lob API host are reused. Only the
+     * Lob connection pool is affected; the JVM DNS cache is left alone.
+     */
+    public static void setDnsCacheTtl(long millis) {
+        dnsResolver.setTtl(millis);
+    }
+
+    public static synchronized void setConnectTimeout(int millis) {
+        requestConfig = RequestConfig.copy(requestConfig)
+                .setConnectTimeout(millis)
+                .setConnectionRequestTimeout(millis)
+                .build();
+    }
+
+    public static synchronized void setReadTimeout(int millis) {
+        requestConfig = RequestConfig.copy(requestConfig)
+                .setSocketTimeout(millis)
+                .build();
+    }
+
+    /**
+     * Sends every request through the given proxy. Pass null to fall back to
+     * the JVM proxy settings.
+     */
+    public static synchronized void setProxy(HttpHost proxy) {
+        requestConfig = RequestConfig.copy(requestConfig)
+                .setProxy(proxy)
+                .build();
+    }
+
+    /**
+     * Overrides the connect and read timeouts for one endpoint, named by the
+     * path segment after /v1/, e.g. "addresses", "jobs" or "verify".
+     */
+    public static void setEndpointTimeouts(String endpoint, int connectTimeout,
+            int readTimeout) {
+        endpointTimeouts.put(endpoint, new int[] { connectTimeout, readTimeout });
+    }
+
+    public static void clearEndpointTimeouts(String endpoint) {
+        endpointTimeouts.remove(endpoint);
+    }
+
+    static RequestConfig requestConfig(String url) {
+        RequestConfig config = requestConfig;
+        int[] timeouts = endpointTimeouts.get(endpoint(url));
+        if (timeouts == null) {
+            return config;
+        }
+        return RequestConfig.copy(config)
+                .setConnectTimeout(timeouts[0])
+                .setConnectionRequestTimeout(timeouts[0])
+                .setSocketTimeout(timeouts[1])
+                .build();
+    }
+
+    /*
+     * The resource a request is addressed to: the path segment after /v1/.
+     */
+    static String endpoint(String url) {
+        int start = url.indexOf("/v1/");
+        if (start < 0) {
+            return url;
+        }
+        start += 4;
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    /**
+     * Sets how failed requests are retried. Use {@link RetryPolicy#NONE} to
+     * turn retries off.
+     */
+    public static void setRetryPolicy(RetryPolicy policy) {
+        retryPolicy = policy == null ? RetryPolicy.NONE : policy;
+    }
+
+    public static RetryPolicy retryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Limits the request rate per API key. Pass null (the default) to send
+     * requests without client-side limiting.
+     */
+    public static void setRateLimiter(RateLimiter limiter) {
+        rateLimiter = limiter;
+    }
+
+    public static RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Guards each endpoint with the given circuit breaker. Pass null (the
+     * default) to disable.
+     */
+    public static void setCircuitBreaker(CircuitBreaker breaker) {
+        circuitBreaker = breaker;
+    }
+
+    public static CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * When enabled, concurrent identical GET requests (same URL, parameters
+     * and API key) share a single HTTP call, and every caller receives the
+     * same deserialized object. Off by default.
+     */
+    public static void setCoalesceGets(boolean enabled) {
+        coalesceGets = enabled;
+    }
+
+    public static boolean isCoalescingGets() {
+        return coalesceGets;
+    }
+
+    /**
+     * Replaces the transport used for every request. Pass null to restore the
+     * default, which is {@link ApacheHttpTransport} or, on Google App Engine,
+     * {@link AppEngineTransport}.
+     */
+    public static void setTransport(HttpTransport httpTransport) {
+        transport = httpTransport;
+    }
+
+    static HttpTransport transport() {
+        HttpTransport current = transport;
+        return current != null ? current : defaultTransport();
+    }
+
+    private static synchronized HttpTransport defaultTransport() {
+        if (defaultTransport == null) {
+            String appEngineEnv = System.getProperty(
+                    "com.google.appengine.runtime.environment", null);
+            if (appEngineEnv != null) {
+                defaultTransport = new AppEngineTransport();
+            } else {
+                defaultTransport = new ApacheHttpTransport();
+            }
+        }
+        return defaultTransport;
+    }
+
+    /**
+     * Executor used by the *Async resource methods. By default this is a
+     * daemon thread pool with one thread per pooled connection; a thread
+     * beyond that would only wait for a connection to be released.
+     */
+    public static synchronized void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    static synchronized Executor asyncExecutor() {
+        if (asyncExecutor != null) {
+            return asyncExecutor;
+        }
+        if (defaultAsyncExecutor == null) {
+            defaultAsyncExecutor = new ThreadPoolExecutor(maxTotal, maxTotal,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r,
+                                    "lob-async-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            defaultAsyncExecutor.allowCoreThreadTimeOut(true);
+        }
+        return defaultAsyncExecutor;
+    }
+
+    /**
+     * Returns the leased, available and pending connection counts for the
+     * whole pool.
+     */
+    public static synchronized PoolStats getPoolStats() {
+        if (connectionManager == null) {
+            return new PoolStats(0, 0, 0, maxTotal);
+        }
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes every pooled connection. The pool is re-created on the next
+     * request.
+     */
+    public static synchronized void shutdown() {
+        if (evictor != null) {
+            evictor.shutdown();
+            evictor = null;
+        }
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+            connectionManager = null;
+        }
+        httpClient = null;
+        if (defaultAsyncExecutor != null) {
+            defaultAsyncExecutor.shutdown();
+            defaultAsyncExecutor = null;
+        }
+    }
+
+    private static class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        }
+    }
+
+    private static class IdleConnectionEvictor extends Thread {
+        private final PoolingHttpClientConnectionManager manager;
+        private volatile boolean shutdown;
+
+        IdleConnectionEvictor(PoolingHttpClientConnectionManager manager) {
+            super("lob-idle-connection-evictor");
+            this.manager = manager;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    synchronized (this) {
+                        wait(Math.max(1000, Math.min(idleTimeout, 5000)));
+                    }
+                    manager.closeExpiredConnections();
+                    manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                // terminate
+            }
+        }
+
+        void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
@@ -1,20 +1,109 @@
 package com.lob.net;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
 public class LobResponse {
 
     int responseCode;
     String responseBody;
+    InputStream responseStream;
+    Charset charset;
+    Map<String, String> headers = Collections.emptyMap();
 
     public LobResponse(int responseCode, String responseBody) {
         this.responseCode = responseCode;
         this.responseBody = responseBody;
     }
 
+    public LobResponse(int responseCode, String responseBody, Map<String, String> headers) {
+        this(responseCode, responseBody);
+        setHeaders(headers);
+    }
+
+    /**
+     * A response whose body is read straight from the given stream. The
+     * stream is closed by {@link #close()}.
+     */
+    public LobResponse(int responseCode, InputStream responseStream, Charset charset) {
+        this.responseCode = responseCode;
+        this.responseStream = responseStream;
+        this.charset = charset;
+    }
+
+    public LobResponse(int responseCode, InputStream responseStream, Charset charset,
+            Map<String, String> headers) {
+        this(responseCode, responseStream, charset);
+        setHeaders(headers);
+    }
+
+    private void setHeaders(Map<String, String> headers) {
+        Map<String, String> copy = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+        this.headers = copy;
+    }
+
     public int getResponseCode() {
         return responseCode;
     }
 
-    public String getResponseBody() {
+    /**
+     * Returns the named response header, ignoring case, or null.
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the body as a string, draining the stream if the response is
+     * streamed.
+     */
+    public String getResponseBody() throws IOException {
+        if (responseBody == null && responseStream != null) {
+            StringBuilder body = new StringBuilder();
+            Reader reader = new InputStreamReader(responseStream, charset);
+            try {
+                char[] buf = new char[4096];
+                for (int n; (n = reader.read(buf)) != -1;) {
+                    body.append(buf, 0, n);
+                }
+            } finally {
+                close();
+            }
+            responseBody = body.toString();
+        }
         return responseBody;
     }
+
+    /**
+     * Returns a reader over the body without first buffering it.
+     */
+    public Reader getResponseReader() {
+        if (responseBody == null && responseStream != null) {
+            return new InputStreamReader(responseStream, charset);
+        }
+        return new StringReader(responseBody == null ? "" : responseBody);
+    }
+
+    /**
+     * Releases the underlying connection, if any.
+     */
+    public void close() throws IOException {
+        if (responseStream != null) {
+            InputStream stream = responseStream;
+            responseStream = null;
+            stream.close();
+        }
+    }
 }
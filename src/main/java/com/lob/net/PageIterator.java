@@ -0,0 +1,99 @@
+package com.lob.net;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.lob.exception.LobException;
+import com.lob.exception.UncheckedLobException;
+
+/**
+ * Lazily walks every page of a list endpoint, one element at a time.
+ *
+ *     for (Iterator<Address> it = Address.iterateAll(params, apiKey); it.hasNext();) {
+ *         Address address = it.next();
+ *     }
+ *
+ * While a page is being consumed, the next one is already being fetched on
+ * the async executor, so a full walk costs little more than the transfer
+ * time. Iteration ends with the first page shorter than the page size.
+ * Request failures surface from {@code hasNext()} or {@code next()} as
+ * {@link UncheckedLobException}.
+ */
+public class PageIterator<T> implements Iterator<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    interface PageLoader<T> {
+        List<T> load(int offset, int count) throws LobException;
+    }
+
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private int offset;
+    private List<T> page = Collections.emptyList();
+    private int index;
+    private CompletableFuture<List<T>> prefetch;
+
+    PageIterator(PageLoader<T> loader, int offset, int pageSize) {
+        this.loader = loader;
+        this.offset = offset;
+        this.pageSize = pageSize;
+        this.prefetch = fetch(offset);
+    }
+
+    public boolean hasNext() {
+        while (index >= page.size()) {
+            if (prefetch == null) {
+                return false;
+            }
+            page = await(prefetch);
+            index = 0;
+            offset += pageSize;
+            prefetch = page.size() < pageSize ? null : fetch(offset);
+        }
+        return true;
+    }
+
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private CompletableFuture<List<T>> fetch(final int offset) {
+        return APIResource.async(() -> {
+            List<T> data = loader.load(offset, pageSize);
+            return data == null ? Collections.<T>emptyList() : data;
+        });
+    }
+
+    private List<T> await(CompletableFuture<List<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof LobException) {
+                prefetch = null;
+                throw new UncheckedLobException((LobException) e.getCause());
+            }
+            throw e;
+        }
+    }
+}
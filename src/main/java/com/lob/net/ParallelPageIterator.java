@@ -0,0 +1,275 @@
+package com.lob.net;
+
+import java.io.Closeable;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.LobException;
+import com.lob.exception.UncheckedLobException;
+
+/**
+ * Walks every page of a list endpoint with several requests in flight, for
+ * full-account exports.
+ *
+ *     try (ParallelPageIterator<Address> it = Address.iterateAllParallel(params, 8, false, apiKey)) {
+ *         it.stream().forEach(address -> export(address));
+ *     }
+ *
+ * Lob's list endpoints do not report a total, so the offset space is not
+ * split up front. Instead each worker claims the next unread page. The first
+ * page shorter than the page size marks the end; until it arrives, workers
+ * may already have requested up to twice the parallelism in pages past it,
+ * and those are discarded. Every request still passes through the client's
+ * rate limiter and circuit breaker.
+ *
+ * In ordered mode elements come out exactly as a sequential walk would
+ * return them; unordered mode hands out each page as soon as it arrives. At
+ * most twice the parallelism in pages is buffered. Once the buffer is full
+ * the workers return their threads to the shared async executor rather than
+ * wait, and taking a page from the buffer starts them again, so a slow
+ * consumer slows the requests down without filling the heap or holding
+ * threads. Close the iterator (or the stream) when abandoning it early, so
+ * that requests already in flight are not buffered.
+ */
+public class ParallelPageIterator<T> implements Iterator<T>, Closeable {
+
+    private final PageIterator.PageLoader<T> loader;
+    private final int offset;
+    private final int pageSize;
+    private final int parallelism;
+    private final boolean ordered;
+    private final Runnable worker = new Runnable() {
+        public void run() {
+            work();
+        }
+    };
+
+    // guarded by this
+    private final Map<Integer, List<T>> ready = new HashMap<Integer, List<T>>();
+    private final BitSet taken = new BitSet();
+    private int freeSlots;
+    private int running;
+    private int nextClaim;
+    private int end = Integer.MAX_VALUE;
+    private int nextPage;
+    private LobException failure;
+    private boolean closed;
+
+    private List<T> page = Collections.emptyList();
+    private int index;
+
+    ParallelPageIterator(PageIterator.PageLoader<T> loader, int offset, int pageSize,
+            int parallelism, boolean ordered) {
+        this.loader = loader;
+        this.offset = offset;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        this.freeSlots = parallelism * 2;
+        startWorkers(workersWanted());
+    }
+
+    public boolean hasNext() {
+        while (index >= page.size()) {
+            List<T> next = takePage();
+            if (next == null) {
+                return false;
+            }
+            page = next;
+            index = 0;
+        }
+        return true;
+    }
+
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public Stream<T> stream() {
+        int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stops the workers once their current request completes.
+     */
+    public synchronized void close() {
+        closed = true;
+        ready.clear();
+        notifyAll();
+    }
+
+    private List<T> takePage() {
+        List<T> next;
+        int starts;
+        synchronized (this) {
+            next = takeReady();
+            starts = workersWanted();
+        }
+        startWorkers(starts);
+        return next;
+    }
+
+    private synchronized List<T> takeReady() {
+        try {
+            while (true) {
+                if (failure != null) {
+                    LobException e = failure;
+                    failure = null;
+                    closed = true;
+                    throw new UncheckedLobException(e);
+                }
+                if (closed) {
+                    return null;
+                }
+                Integer available = available();
+                if (available != null) {
+                    taken.set(available);
+                    freeSlots++;
+                    return ready.remove(available);
+                }
+                if (end != Integer.MAX_VALUE && taken.nextClearBit(0) > end) {
+                    return null;
+                }
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedLobException(new APIConnectionException(
+                    "Interrupted while listing pages", e));
+        }
+    }
+
+    /*
+     * The page to hand out next, if it has arrived. Pages past the end are
+     * empty and only returned to free their buffer slot.
+     */
+    private Integer available() {
+        if (ordered) {
+            while (ready.containsKey(nextPage)) {
+                int claim = nextPage++;
+                if (claim <= end) {
+                    return claim;
+                }
+                ready.remove(claim);
+                freeSlots++;
+            }
+            return null;
+        }
+        for (Integer claim : ready.keySet()) {
+            if (claim > end) {
+                ready.remove(claim);
+                freeSlots++;
+                return available();
+            }
+            return claim;
+        }
+        return null;
+    }
+
+    /*
+     * How many more workers to start, counted as running. There is no point
+     * in more of them than there are free slots.
+     */
+    private int workersWanted() {
+        if (closed || failure != null || nextClaim > end) {
+            return 0;
+        }
+        int starts = Math.min(parallelism - running, freeSlots);
+        if (starts <= 0) {
+            return 0;
+        }
+        running += starts;
+        return starts;
+    }
+
+    private void startWorkers(int starts) {
+        for (int i = 0; i < starts; i++) {
+            try {
+                LobHttpClient.asyncExecutor().execute(worker);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    running -= starts - i;
+                    if (running == 0) {
+                        fail(new APIConnectionException("No thread available to list pages", e));
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void work() {
+        while (true) {
+            int claim;
+            synchronized (this) {
+                // exits rather than waits on a full buffer; takePage restarts it
+                if (closed || failure != null || freeSlots == 0 || nextClaim > end) {
+                    running--;
+                    return;
+                }
+                freeSlots--;
+                claim = nextClaim++;
+            }
+            List<T> data;
+            try {
+                data = loader.load(offset + claim * pageSize, pageSize);
+            } catch (LobException e) {
+                stop(e);
+                return;
+            } catch (RuntimeException e) {
+                stop(new APIException(e.getMessage(), e));
+                return;
+            }
+            synchronized (this) {
+                if (data == null) {
+                    data = Collections.emptyList();
+                }
+                if (data.size() < pageSize && claim < end) {
+                    end = claim;
+                }
+                if (!closed) {
+                    ready.put(claim, data);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void fail(LobException e) {
+        if (failure == null && !closed) {
+            failure = e;
+        }
+        notifyAll();
+    }
+
+    private synchronized void stop(LobException e) {
+        running--;
+        fail(e);
+    }
+
+    synchronized int runningWorkers() {
+        return running;
+    }
+}
@@ -0,0 +1,201 @@
+package com.lob.net;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.RateLimitException;
+
+/**
+ * Client-side token bucket limiter, one bucket per API key.
+ *
+ * Each request takes one token; tokens refill at {@code permitsPerSecond} up
+ * to {@code burst}. When no token is available the caller blocks, waits up
+ * to a timeout, or fails fast with a {@link RateLimitException}, depending
+ * on the {@link Mode}.
+ *
+ * A 429 response pauses the key's bucket until the time given by the
+ * X-Rate-Limit-Reset or Retry-After header, and an X-Rate-Limit-Limit lower
+ * than the configured burst lowers that key's burst to match.
+ */
+public class RateLimiter {
+
+    public enum Mode {
+        BLOCK, TIMEOUT, FAIL_FAST
+    }
+
+    private volatile double permitsPerSecond;
+    private volatile int burst;
+    private volatile Mode mode;
+    private volatile long timeout;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Mode.BLOCK, 0);
+    }
+
+    /**
+     * @param timeout how long to wait for a token in {@link Mode#TIMEOUT},
+     *                in milliseconds
+     */
+    public RateLimiter(double permitsPerSecond, int burst, Mode mode, long timeout) {
+        setRate(permitsPerSecond, burst);
+        this.mode = mode;
+        this.timeout = timeout;
+    }
+
+    public synchronized void setRate(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    public void setMode(Mode mode, long timeout) {
+        this.mode = mode;
+        this.timeout = timeout;
+    }
+
+    public double getRate() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * The burst for the given API key: the configured burst, or the limit
+     * Lob last reported for the key if that is lower.
+     */
+    public int getBurst(String apiKey) {
+        return bucket(apiKey).burst();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Takes a token for the given API key, waiting according to the mode.
+     */
+    public void acquire(String apiKey) throws RateLimitException, APIConnectionException {
+        long maxWait;
+        switch (mode) {
+        case FAIL_FAST:
+            maxWait = 0;
+            break;
+        case TIMEOUT:
+            maxWait = TimeUnit.MILLISECONDS.toNanos(timeout);
+            break;
+        default:
+            maxWait = Long.MAX_VALUE;
+        }
+
+        long wait = bucket(apiKey).reserve(maxWait);
+        if (wait < 0) {
+            throw new RateLimitException(String.format(
+                    "Client rate limit of %.1f requests per second exceeded", permitsPerSecond));
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new APIConnectionException("Interrupted while waiting for rate limit", e);
+            }
+        }
+    }
+
+    /**
+     * Adjusts the key's bucket from the rate limit headers of a response.
+     */
+    public void update(String apiKey, LobResponse response) {
+        String limit = response.getHeader("X-Rate-Limit-Limit");
+        if (limit != null) {
+            try {
+                int serverLimit = Integer.parseInt(limit.trim());
+                if (serverLimit > 0) {
+                    bucket(apiKey).setServerLimit(serverLimit);
+                }
+            } catch (NumberFormatException e) {
+                // ignore malformed header
+            }
+        }
+        if (response.getResponseCode() != 429) {
+            return;
+        }
+        long resumeAt = -1;
+        String reset = response.getHeader("X-Rate-Limit-Reset");
+        if (reset != null) {
+            try {
+                resumeAt = Long.parseLong(reset.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                // ignore malformed header
+            }
+        }
+        if (resumeAt < 0) {
+            long retryAfter = RetryPolicy.retryAfter(response.getHeader("Retry-After"));
+            resumeAt = System.currentTimeMillis() + Math.max(retryAfter, 1000);
+        }
+        bucket(apiKey).pauseUntil(resumeAt);
+    }
+
+    private Bucket bucket(String apiKey) {
+        Bucket bucket = buckets.get(apiKey);
+        if (bucket == null) {
+            Bucket created = new Bucket();
+            bucket = buckets.putIfAbsent(apiKey, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket;
+    }
+
+    private class Bucket {
+        private double tokens = burst;
+        private long refilledAt = System.nanoTime();
+        private long pausedUntil;
+        private int serverLimit = Integer.MAX_VALUE;
+
+        synchronized int burst() {
+            return Math.min(burst, serverLimit);
+        }
+
+        synchronized void setServerLimit(int limit) {
+            serverLimit = limit;
+            tokens = Math.min(tokens, burst());
+        }
+
+        /*
+         * Reserves a token and returns how long the caller must wait for it,
+         * or -1 if that would exceed maxWait. Tokens may go negative so that
+         * waiting callers are served in order.
+         */
+        synchronized long reserve(long maxWait) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst(), tokens + (now - refilledAt) * permitsPerSecond / 1e9);
+            refilledAt = now;
+
+            long wait = 0;
+            if (tokens < 1) {
+                wait = (long) Math.ceil((1 - tokens) * 1e9 / permitsPerSecond);
+            }
+            long pause = TimeUnit.MILLISECONDS.toNanos(pausedUntil - System.currentTimeMillis());
+            wait = Math.max(wait, pause);
+            if (wait > maxWait) {
+                return -1;
+            }
+            tokens -= 1;
+            return wait;
+        }
+
+        synchronized void pauseUntil(long millis) {
+            pausedUntil = Math.max(pausedUntil, millis);
+            tokens = Math.min(tokens, 0);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.lob.net;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.lob.exception.LobException;
+
+/**
+ * In-memory cache for the near-static catalog endpoints: countries, states,
+ * settings, services and packagings.
+ *
+ * Entries live for the TTL (one hour by default). Once an entry is three
+ * quarters of the way through its TTL, the next read still returns it and
+ * reloads it in the background, so a catalog in regular use is never
+ * fetched on the caller's thread. The cache holds at most
+ * {@code maxEntries} entries and evicts the least recently used.
+ */
+public final class ReferenceDataCache {
+
+    public static final long DEFAULT_TTL = 3600000; // 1 hour
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static volatile boolean enabled = true;
+    private static volatile long ttl = DEFAULT_TTL;
+    private static volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private static final Map<String, Cached> entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private static final SingleFlight loads = new SingleFlight();
+
+    private ReferenceDataCache() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ReferenceDataCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static void setTtl(long millis) {
+        ttl = millis;
+    }
+
+    public static void setMaxEntries(int max) {
+        maxEntries = max;
+    }
+
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(final String key, final APIResource.LobCall<T> loader) throws LobException {
+        if (!enabled) {
+            return loader.call();
+        }
+        Cached entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            long age = System.currentTimeMillis() - entry.loadedAt;
+            if (age < ttl) {
+                if (age >= ttl / 4 * 3) {
+                    refreshInBackground(key, entry, loader);
+                }
+                return (T) entry.value;
+            }
+        }
+        // concurrent misses for the same catalog share one load
+        return loads.execute(key, new APIResource.LobCall<T>() {
+            public T call() throws LobException {
+                return load(key, loader);
+            }
+        });
+    }
+
+    private static <T> T load(String key, APIResource.LobCall<T> loader) throws LobException {
+        T value = loader.call();
+        if (value != null) {
+            synchronized (entries) {
+                entries.put(key, new Cached(value));
+            }
+        }
+        return value;
+    }
+
+    private static <T> void refreshInBackground(final String key, final Cached entry,
+            final APIResource.LobCall<T> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LobHttpClient.asyncExecutor().execute(new Runnable() {
+                public void run() {
+                    try {
+                        load(key, loader);
+                    } catch (LobException e) {
+                        // keep serving the cached copy until it expires
+                        entry.refreshing.set(false);
+                    } catch (RuntimeException e) {
+                        entry.refreshing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static class Cached {
+        final Object value;
+        final long loadedAt = System.currentTimeMillis();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Cached(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.lob.net;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lob.exception.InvalidRequestException;
+
+/**
+ * Base of the typed create builders, such as {@code AddressParams}.
+ *
+ * A builder declares its fields once, as a {@link Fields} table of wire
+ * names, and keeps the values in an array indexed by field. Numbers are
+ * formatted as they are set rather than boxed, and the bracketed names of a
+ * nested builder ({@code to[address_line1]}) are worked out once per prefix
+ * and reused by every request. Each request copies the fields that were set
+ * into one flat name/value map for the transport, the same map that
+ * flattening nested params would produce, without building the nested map.
+ *
+ * As with map params, setting a field to null sends it empty so that Lob
+ * clears it, and an empty string is rejected when the request is made.
+ */
+public abstract class RequestParams {
+
+    private final Fields fields;
+    private final String[] values;
+    private RequestParams[] nested;
+    private long present;
+
+    protected RequestParams(Fields fields) {
+        this.fields = fields;
+        this.values = new String[fields.names.length];
+    }
+
+    protected final void set(int field, String value) {
+        values[field] = value;
+        if (nested != null) {
+            nested[field] = null;
+        }
+        present |= 1L << field;
+    }
+
+    protected final void set(int field, long value) {
+        set(field, Long.toString(value));
+    }
+
+    protected final void set(int field, RequestParams value) {
+        if (value == null) {
+            set(field, (String) null);
+            return;
+        }
+        if (nested == null) {
+            nested = new RequestParams[values.length];
+        }
+        nested[field] = value;
+        values[field] = null;
+        present |= 1L << field;
+    }
+
+    /**
+     * The flattened name/value pairs sent to the transport.
+     */
+    Map<String, String> toBody() throws InvalidRequestException {
+        Map<String, String> body = new HashMap<String, String>();
+        writeTo(body, fields.names);
+        return body;
+    }
+
+    /**
+     * Writes each field that was set under its name in names; subclasses
+     * with repeated fields add those after calling this.
+     */
+    protected void writeTo(Map<String, String> body, String[] names)
+            throws InvalidRequestException {
+        for (long bits = present; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            if (nested != null && nested[field] != null) {
+                RequestParams child = nested[field];
+                child.writeTo(body, child.fields.prefixed(names[field]));
+            } else {
+                body.put(names[field], FormEncoder.stringValue(names[field], values[field]));
+            }
+        }
+    }
+
+    /**
+     * The wire names of a builder's fields, in field-index order.
+     */
+    protected static final class Fields {
+        private final String[] names;
+        private final ConcurrentMap<String, String[]> prefixed =
+                new ConcurrentHashMap<String, String[]>();
+
+        public Fields(String... names) {
+            if (names.length > 64) {
+                throw new IllegalArgumentException("at most 64 fields");
+            }
+            this.names = names;
+        }
+
+        String[] prefixed(String prefix) {
+            String[] result = prefixed.get(prefix);
+            if (result == null) {
+                result = new String[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    result[i] = prefix + "[" + names[i] + "]";
+                }
+                prefixed.putIfAbsent(prefix, result);
+            }
+            return result;
+        }
+    }
+}
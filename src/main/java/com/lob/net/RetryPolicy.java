@@ -0,0 +1,102 @@
+package com.lob.net;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * Decides whether and when a failed Lob request is sent again.
+ *
+ * Connection failures, 429 and 5xx responses are retried up to
+ * {@code maxAttempts} times in total. The wait before attempt n is drawn
+ * uniformly from [0, min(maxDelay, baseDelay * 2^(n-1))] ("full jitter"),
+ * unless the response carries a Retry-After header, which is honoured. A
+ * Retry-After longer than maxDelay is not waited out: the response is
+ * returned to the caller instead.
+ *
+ * Creates are sent with an Idempotency-Key that stays the same across
+ * attempts, so a retried create cannot produce a second mail piece.
+ */
+public class RetryPolicy {
+
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500, 10000);
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+
+    /**
+     * @param maxAttempts total number of attempts, including the first
+     * @param baseDelay   backoff base in milliseconds
+     * @param maxDelay    upper bound of a single backoff in milliseconds
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public boolean isRetryable(int responseCode) {
+        return responseCode == 429 || responseCode >= 500;
+    }
+
+    /**
+     * Milliseconds to wait after the given failed attempt (1-based), or -1
+     * if the server asked for a longer wait than maxDelay and the attempt
+     * should not be retried. {@code response} is null when the attempt
+     * failed to connect.
+     */
+    public long delay(int attempt, LobResponse response) {
+        if (response != null) {
+            long retryAfter = retryAfter(response.getHeader("Retry-After"));
+            if (retryAfter > maxDelay) {
+                return -1;
+            }
+            if (retryAfter >= 0) {
+                return retryAfter;
+            }
+        }
+        long ceiling = baseDelay << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelay) {
+            ceiling = maxDelay;
+        }
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /*
+     * Retry-After is either a number of seconds or an HTTP date.
+     */
+    static long retryAfter(String value) {
+        if (value == null) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            if (date == null) {
+                return -1;
+            }
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+}
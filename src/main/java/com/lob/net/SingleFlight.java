@@ -0,0 +1,77 @@
+package com.lob.net;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.LobException;
+
+/**
+ * Collapses concurrent identical calls into one.
+ *
+ * The first caller for a key performs the call; callers arriving while it
+ * is in flight wait for and share its result or exception. The key is
+ * forgotten as soon as the call completes, so a later caller always starts
+ * a fresh call and never sees an older result.
+ */
+class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, APIResource.LobCall<T> call) throws LobException {
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, future);
+        if (leader != null) {
+            return (T) await(leader);
+        }
+        T result = null;
+        Throwable failure = null;
+        try {
+            result = call.call();
+            return result;
+        } catch (LobException e) {
+            failure = e;
+            throw e;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // removed first, so a caller arriving now starts a fresh call
+            inFlight.remove(key, future);
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> leader) throws LobException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIConnectionException("Interrupted while waiting for a shared request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LobException) {
+                throw (LobException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new APIConnectionException("Shared request failed", cause);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.lob.net;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.lob.exception.LobException;
+
+/**
+ * Opt-in memoization of {@code Address.verify}.
+ *
+ * Results are keyed by the API key and the normalized input address (see
+ * {@link AddressNormalizer}), so the same customer address typed slightly
+ * differently is verified once. Entries expire after the TTL (24 hours by
+ * default) and at most {@code maxEntries} are kept, evicting the least
+ * recently used. Failed verifications are never cached.
+ *
+ * A {@link Store} can be attached as a second tier that outlives the JVM;
+ * lookups missing the in-heap cache consult it before calling the API.
+ *
+ *     VerifyCache.setEnabled(true);
+ */
+public final class VerifyCache {
+
+    public static final long DEFAULT_TTL = 86400000; // 24 hours
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static volatile boolean enabled = false;
+    private static volatile long ttl = DEFAULT_TTL;
+    private static int maxEntries = DEFAULT_MAX_ENTRIES;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+    private static long storeHits;
+    private static volatile Store store;
+
+    private static final Map<String, Cached> entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+            if (size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final SingleFlight loads = new SingleFlight();
+
+    /**
+     * Second-tier storage for verification results, e.g. on local disk.
+     * Implementations must be thread-safe and must not throw: a store that
+     * cannot answer reports a miss.
+     */
+    public interface Store {
+        /**
+         * The value stored under key, or null if there is none or it is
+         * older than maxAge milliseconds.
+         */
+        Object get(String key, long maxAge);
+
+        void put(String key, Object value);
+    }
+
+    private VerifyCache() {
+    }
+
+    public static void setStore(Store store) {
+        VerifyCache.store = store;
+    }
+
+    public static Store getStore() {
+        return store;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        VerifyCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static void setTtl(long millis) {
+        ttl = millis;
+    }
+
+    public static void setMaxEntries(int max) {
+        synchronized (entries) {
+            maxEntries = max;
+        }
+    }
+
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public static long hits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    public static long misses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    public static long evictions() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Number of in-heap misses answered by the store.
+     */
+    public static long storeHits() {
+        synchronized (entries) {
+            return storeHits;
+        }
+    }
+
+    /**
+     * Share of lookups answered from the cache, between 0 and 1.
+     */
+    public static double hitRate() {
+        synchronized (entries) {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+            storeHits = 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(final String key, final APIResource.LobCall<T> loader) throws LobException {
+        synchronized (entries) {
+            Cached entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttl) {
+                hits++;
+                return (T) entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+        }
+        // concurrent lookups of the same address share one verification
+        return loads.execute(key, new APIResource.LobCall<T>() {
+            public T call() throws LobException {
+                Store second = store;
+                T value = second == null ? null : (T) second.get(key, ttl);
+                if (value != null) {
+                    synchronized (entries) {
+                        storeHits++;
+                    }
+                } else {
+                    value = loader.call();
+                    if (value != null && second != null) {
+                        second.put(key, value);
+                    }
+                }
+                if (value != null && enabled) {
+                    synchronized (entries) {
+                        entries.put(key, new Cached(value));
+                    }
+                }
+                return value;
+            }
+        });
+    }
+
+    private static class Cached {
+        final Object value;
+        final long loadedAt = System.currentTimeMillis();
+
+        Cached(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.lob.model.Verify;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -281,6 +282,23 @@ public class AddressTest {
       assertEquals(createdAddress.getId(), retrievedAddress.getId());
     }
 
+    @Test
+    public void testAddressRetrieveAsync() throws Exception {
+      Address createdAddress = Address.createAsync(defaultAddressParams, Lob.apiKey).get();
+      Address retrievedAddress = Address.retrieveAsync(createdAddress.getId(), Lob.apiKey).get();
+      assertEquals(createdAddress.getId(), retrievedAddress.getId());
+    }
+
+    @Test
+    public void testAddressRetrieveAsyncFail() throws Exception {
+      try {
+        Address.retrieveAsync("asdf", Lob.apiKey).get();
+        fail("Should be an APIException");
+      } catch (ExecutionException ex) {
+        assertThat(ex.getCause()).isInstanceOf(APIException.class);
+      }
+    }
+
     @Test(expected = APIException.class)
     public void testAddressRetrieveFail() throws LobException {
       Address address = Address.retrieve("asdf", Lob.apiKey);
@@ -0,0 +1,137 @@
+package com.lob.bulk;
+
+import com.lob.Lob;
+import com.lob.model.Address;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.LobHttpClient;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AddressImporterTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    private static class RecordingSink implements ImportSink {
+        final Map<Long, String> ids = new ConcurrentHashMap<Long, String>();
+        final Map<Long, String> errors = new ConcurrentHashMap<Long, String>();
+
+        public void success(long row, String id) {
+            ids.put(row, id);
+        }
+
+        public void failure(long row, String error) {
+            errors.put(row, error);
+        }
+    }
+
+    @Test
+    public void it_should_parse_quoted_csv_fields() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader(
+                "a,\"b, c\",\"say \"\"hi\"\"\"\r\n\r\n\"multi\nline\",,x\n"));
+
+        assertThat(reader.readRecord()).isEqualTo(Arrays.asList("a", "b, c", "say \"hi\""));
+        assertThat(reader.readRecord()).isEqualTo(Arrays.asList("multi\nline", "", "x"));
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    public void it_should_create_an_address_per_csv_row() throws Exception {
+        StringBuilder csv = new StringBuilder("Name,Street,address_city\n");
+        for (int i = 1; i <= 50; i++) {
+            csv.append("Person ").append(i).append(',').append(i).append(" Main St,Springfield\n");
+        }
+        RecordingSink sink = new RecordingSink();
+        ImportSummary summary = new AddressImporter(Lob.apiKey, 8)
+                .mapColumn("Name", "name")
+                .mapColumn("Street", "address_line1")
+                .importCsv(new StringReader(csv.toString()), sink);
+
+        assertThat(summary.getSucceeded()).isEqualTo(50);
+        assertThat(sink.ids).hasSize(50);
+        Address seventh = Address.retrieve(sink.ids.get(7L), Lob.apiKey);
+        assertThat(seventh.getName()).isEqualTo("Person 7");
+        assertThat(seventh.getAddress_line1()).isEqualTo("7 Main St");
+        assertThat(seventh.getAddress_city()).isEqualTo("Springfield");
+    }
+
+    @Test
+    public void it_should_report_invalid_ndjson_rows_and_continue() throws Exception {
+        String ndjson = "{\"name\":\"A\",\"metadata\":{\"crm_id\":42}}\n"
+                + "not json\n"
+                + "\n"
+                + "{\"name\":\"B\"}\n";
+        RecordingSink sink = new RecordingSink();
+        ImportSummary summary = new AddressImporter(Lob.apiKey, 2)
+                .importNdjson(new StringReader(ndjson), sink);
+
+        assertThat(summary.getSucceeded()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(sink.ids.keySet()).containsOnly(1L, 3L);
+        assertThat(sink.errors.get(2L)).startsWith("Invalid JSON");
+    }
+
+    @Test
+    public void it_should_write_csv_results() throws Exception {
+        StringWriter out = new StringWriter();
+        new AddressImporter(Lob.apiKey, 1)
+                .importNdjson(new StringReader("{\"name\":\"A\"}\n[1]\n"), ImportSink.csv(out));
+
+        // lines arrive in completion order
+        String[] lines = out.toString().split("\n");
+        Arrays.sort(lines);
+        assertThat(lines[0]).matches("1,adr_\\w+,");
+        assertThat(lines[1]).isEqualTo("2,,\"Invalid JSON: expected an object\"");
+    }
+
+    @Test
+    public void it_should_never_exceed_the_concurrency_limit() throws Exception {
+        final int[] current = {0};
+        final int[] peak = {0};
+        LobHttpClient.setTransport(new FakeLobTransport(5, 0) {
+            @Override
+            public com.lob.net.LobResponse execute(com.lob.net.APIResource.RequestMethod method,
+                    String url, Map<String, String> headers, Map<String, String> body)
+                    throws com.lob.exception.APIConnectionException {
+                synchronized (current) {
+                    peak[0] = Math.max(peak[0], ++current[0]);
+                }
+                try {
+                    return super.execute(method, url, headers, body);
+                } finally {
+                    synchronized (current) {
+                        current[0]--;
+                    }
+                }
+            }
+        });
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            ndjson.append("{\"name\":\"P").append(i).append("\"}\n");
+        }
+        ImportSummary summary = new AddressImporter(Lob.apiKey, 4)
+                .importNdjson(new StringReader(ndjson.toString()), new RecordingSink());
+
+        assertThat(summary.getSucceeded()).isEqualTo(60);
+        assertThat(peak[0]).isLessThanOrEqualTo(4).isGreaterThan(1);
+    }
+}
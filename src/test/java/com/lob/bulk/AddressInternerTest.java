@@ -0,0 +1,185 @@
+package com.lob.bulk;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.InvalidRequestException;
+import com.lob.net.APIResource;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.HttpTransport;
+import com.lob.net.LobHttpClient;
+import com.lob.net.LobResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AddressInternerTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    private static Map<String, Object> address(String name, String line1, String zip) {
+        Map<String, Object> address = new HashMap<String, Object>();
+        address.put("name", name);
+        address.put("address_line1", line1);
+        address.put("address_city", "San Francisco");
+        address.put("address_state", "CA");
+        address.put("address_zip", zip);
+        return address;
+    }
+
+    @Test
+    public void it_should_create_equivalent_addresses_once() throws Exception {
+        AddressInterner interner = new AddressInterner();
+        String id = interner.addressId(address("Jane", "185 Berry St", "94107"), Lob.apiKey);
+
+        assertThat(id).startsWith("adr_");
+        assertThat(interner.addressId(address("JANE", " 185  berry st", "94107-1741"), Lob.apiKey))
+                .isEqualTo(id);
+        assertThat(interner.addressId(address("Jane", "186 Berry St", "94107"), Lob.apiKey))
+                .isNotEqualTo(id);
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_replace_inline_to_and_from() throws Exception {
+        AddressInterner interner = new AddressInterner();
+        Map<String, Object> postcard = new HashMap<String, Object>();
+        postcard.put("name", "Promo");
+        postcard.put("to", address("Jane", "185 Berry St", "94107"));
+        postcard.put("from", address("Lob", "1 Market St", "94105"));
+
+        Map<String, Object> first = interner.intern(postcard, Lob.apiKey);
+        Map<String, Object> second = interner.intern(postcard, Lob.apiKey);
+
+        assertThat((String) first.get("to")).startsWith("adr_");
+        assertThat((String) first.get("from")).startsWith("adr_");
+        assertThat(second).isEqualTo(first);
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_stay_within_its_bound() throws Exception {
+        AddressInterner interner = new AddressInterner(3);
+        for (int i = 0; i < 5; i++) {
+            interner.addressId(address("Jane", i + " Main St", "94107"), Lob.apiKey);
+        }
+        assertThat(interner.size()).isEqualTo(3);
+
+        interner.addressId(address("Jane", "4 Main St", "94107"), Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(5);
+        interner.addressId(address("Jane", "0 Main St", "94107"), Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void it_should_not_share_ids_between_default_api_keys() throws Exception {
+        AddressInterner interner = new AddressInterner();
+        String test = interner.addressId(address("Jane", "185 Berry St", "94107"), null);
+        Lob.apiKey = "live_fake";
+        String live = interner.addressId(address("Jane", "185 Berry St", "94107"), null);
+
+        assertThat(live).isNotEqualTo(test);
+        assertThat(interner.addressId(address("Jane", "185 Berry St", "94107"), "live_fake"))
+                .isEqualTo(live);
+    }
+
+    @Test
+    public void it_should_forget_a_failed_create() throws Exception {
+        AddressInterner interner = new AddressInterner();
+        try {
+            interner.addressId(address("", "185 Berry St", "94107"), Lob.apiKey);
+            fail("expected an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(interner.inFlightCount()).isEqualTo(0);
+        }
+    }
+
+    /*
+     * Fails the first create once released, and counts the creates sent.
+     */
+    private static class FailFirstTransport implements HttpTransport {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger creates = new AtomicInteger();
+        final FakeLobTransport fake = new FakeLobTransport();
+
+        public LobResponse execute(APIResource.RequestMethod method, String url,
+                Map<String, String> headers, Map<String, String> body)
+                throws APIConnectionException, APIException {
+            if (creates.incrementAndGet() == 1) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new LobResponse(422,
+                        "{\"errors\":[{\"message\":\"try again\",\"status_code\":422}]}");
+            }
+            return fake.execute(method, url, headers, body);
+        }
+    }
+
+    @Test
+    public void it_should_not_create_twice_after_a_failed_create() throws Exception {
+        FailFirstTransport failing = new FailFirstTransport();
+        LobHttpClient.setTransport(failing);
+        final AddressInterner interner = new AddressInterner();
+        final Map<String, Object> jane = address("Jane", "185 Berry St", "94107");
+        final AtomicReference<Exception> firstError = new AtomicReference<Exception>();
+        final AtomicReference<Exception> waiterError = new AtomicReference<Exception>();
+
+        Thread first = new Thread(() -> {
+            try {
+                interner.addressId(jane, Lob.apiKey);
+            } catch (Exception e) {
+                firstError.set(e);
+            }
+        });
+        first.start();
+        failing.entered.await();
+        Thread waiter = new Thread(() -> {
+            try {
+                interner.addressId(jane, Lob.apiKey);
+            } catch (Exception e) {
+                waiterError.set(e);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        failing.release.countDown();
+        first.join();
+
+        // arrives after the failure, while the waiter may still be waking
+        String id = interner.addressId(jane, Lob.apiKey);
+        waiter.join();
+
+        assertThat(firstError.get()).isInstanceOf(APIException.class);
+        assertThat(waiterError.get()).isSameAs(firstError.get());
+        assertThat(interner.addressId(jane, Lob.apiKey)).isEqualTo(id);
+        assertThat(failing.creates.get()).isEqualTo(2);
+        assertThat(interner.inFlightCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.lob.bulk;
+
+import com.lob.Lob;
+import com.lob.model.Address;
+import com.lob.net.APIResource;
+import com.lob.net.AddressPages;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.LobHttpClient;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.lob.net.AddressPages.page;
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NdjsonExporterTest {
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        LobHttpClient.setTransport(new FakeLobTransport());
+        AddressPages.seed(25, Lob.apiKey);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    @Test
+    public void it_should_write_one_record_per_line() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonExporter exporter = new NdjsonExporter(out, false);
+        assertThat(exporter.export(Address.iterateAll(page(10), Lob.apiKey))).isEqualTo(25);
+        exporter.close();
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertThat(lines).hasSize(25);
+        Address first = APIResource.gson.fromJson(lines[0], Address.class);
+        assertThat(first.getId()).startsWith("adr_");
+        assertThat(first.getAddress_line1()).isEqualTo("0 Main St");
+    }
+
+    @Test
+    public void it_should_gzip_files_ending_in_gz() throws Exception {
+        File file = File.createTempFile("addresses", ".ndjson.gz");
+        try {
+            NdjsonExporter exporter = new NdjsonExporter(file);
+            exporter.export(Address.iterateAll(page(10), Lob.apiKey));
+            exporter.close();
+            assertThat(exporter.getCount()).isEqualTo(25);
+
+            List<String> lines = new ArrayList<String>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new FileInputStream(file)), "UTF-8"));
+            for (String line; (line = reader.readLine()) != null;) {
+                lines.add(line);
+            }
+            reader.close();
+            assertThat(lines).hasSize(25);
+            assertThat(lines.get(24)).startsWith("{").contains("\"name\":\"Address 24\"");
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.lob.bulk;
+
+import com.lob.Lob;
+import com.lob.exception.InvalidRequestException;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.LobHttpClient;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ObjectRegistryTest {
+    private FakeLobTransport transport;
+    private File registry;
+    private File pdf;
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+        registry = File.createTempFile("objects", ".tsv");
+        registry.delete();
+        pdf = write("creative", "%PDF-1.4 creative");
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        registry.delete();
+        pdf.delete();
+    }
+
+    private static File write(String name, String content) throws Exception {
+        File file = File.createTempFile(name, ".pdf");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+        return file;
+    }
+
+    private static Map<String, Object> object(File file) {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Creative");
+        params.put("file", "@" + file.getPath());
+        params.put("quantity", "1");
+        return params;
+    }
+
+    @Test
+    public void it_should_upload_identical_content_once() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        File copy = write("copy", "%PDF-1.4 creative");
+        try {
+            String id = objects.objectId(object(pdf), Lob.apiKey);
+            assertThat(objects.objectId(object(pdf), Lob.apiKey)).isEqualTo(id);
+            assertThat(objects.objectId(object(copy), Lob.apiKey)).isEqualTo(id);
+        } finally {
+            copy.delete();
+        }
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_upload_changed_content_or_settings_again() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        String id = objects.objectId(object(pdf), Lob.apiKey);
+
+        Map<String, Object> otherSetting = object(pdf);
+        otherSetting.put("quantity", "2");
+        File edited = write("edited", "%PDF-1.4 edited");
+        try {
+            assertThat(objects.objectId(otherSetting, Lob.apiKey)).isNotEqualTo(id);
+            assertThat(objects.objectId(object(edited), Lob.apiKey)).isNotEqualTo(id);
+        } finally {
+            edited.delete();
+        }
+        assertThat(transport.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void it_should_remember_ids_across_runs() throws Exception {
+        String id = new ObjectRegistry(registry).objectId(object(pdf), Lob.apiKey);
+
+        ObjectRegistry reloaded = new ObjectRegistry(registry);
+        assertThat(reloaded.size()).isEqualTo(1);
+        assertThat(reloaded.objectId(object(pdf), Lob.apiKey)).isEqualTo(id);
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_replace_inline_objects_in_job_params() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        Map<String, Object> job = new HashMap<String, Object>();
+        job.put("name", "Campaign");
+        job.put("object1", object(pdf));
+
+        Map<String, Object> first = objects.resolve(job, Lob.apiKey);
+        Map<String, Object> second = objects.resolve(job, Lob.apiKey);
+
+        assertThat((String) first.get("object1")).startsWith("obj_");
+        assertThat(second.get("object1")).isEqualTo(first.get("object1"));
+        assertThat(second.get("name")).isEqualTo("Campaign");
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_not_share_ids_between_default_api_keys() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        String test = objects.objectId(object(pdf), null);
+        Lob.apiKey = "live_fake";
+        String live = objects.objectId(object(pdf), null);
+
+        assertThat(live).isNotEqualTo(test);
+        assertThat(objects.objectId(object(pdf), "live_fake")).isEqualTo(live);
+    }
+
+    @Test
+    public void it_should_forget_a_failed_create() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        Map<String, Object> params = object(pdf);
+        params.put("name", "");
+        try {
+            objects.objectId(params, Lob.apiKey);
+            fail("expected an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(objects.inFlightCount()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void it_should_upload_once_for_concurrent_callers() throws Exception {
+        FakeLobTransport slow = new FakeLobTransport(50, 0);
+        LobHttpClient.setTransport(slow);
+        final ObjectRegistry objects = new ObjectRegistry(registry);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> ids = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                ids.add(pool.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        return objects.objectId(object(pdf), Lob.apiKey);
+                    }
+                }));
+            }
+            Set<String> distinct = new HashSet<String>();
+            for (Future<String> id : ids) {
+                distinct.add(id.get());
+            }
+            assertThat(distinct).hasSize(1);
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(slow.getRequestCount()).isEqualTo(1);
+        assertThat(Files.readAllLines(registry.toPath())).hasSize(1);
+        assertThat(objects.inFlightCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void it_should_read_a_file_again_only_once_it_changes() throws Exception {
+        ObjectRegistry objects = new ObjectRegistry(registry);
+        String id = objects.objectId(object(pdf), Lob.apiKey);
+        long lastModified = pdf.lastModified();
+
+        // same size and timestamp: the remembered digest is used, not the new bytes
+        FileOutputStream out = new FileOutputStream(pdf);
+        out.write("%PDF-1.4 edited!!".getBytes("UTF-8"));
+        out.close();
+        assertThat(pdf.setLastModified(lastModified)).isTrue();
+        assertThat(objects.objectId(object(pdf), Lob.apiKey)).isEqualTo(id);
+
+        assertThat(pdf.setLastModified(lastModified + 2000)).isTrue();
+        assertThat(objects.objectId(object(pdf), Lob.apiKey)).isNotEqualTo(id);
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+}
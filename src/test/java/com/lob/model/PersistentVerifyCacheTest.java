@@ -0,0 +1,157 @@
+package com.lob.model;
+
+import com.lob.Lob;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.LobHttpClient;
+import com.lob.net.VerifyCache;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistentVerifyCacheTest {
+    private File path;
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        path = File.createTempFile("lob-verify", ".bin");
+        path.delete();
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        VerifyCache.setStore(null);
+        VerifyCache.setEnabled(false);
+        path.delete();
+    }
+
+    private static Verify verify(String line1, String zip) {
+        Address address = new Address();
+        address.address_line1 = line1;
+        address.address_zip = zip;
+        address.address_country = "US";
+        address.object = "address";
+        Verify verify = new Verify();
+        verify.address = address;
+        return verify;
+    }
+
+    @Test
+    public void it_should_read_back_what_it_stored_after_reopening() throws Exception {
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 64, 64 * 1024);
+        cache.put("a", verify("185 BERRY ST", "94107"));
+        cache.put("b", verify("123 MAIN ST é", null));
+        cache.close();
+
+        cache = new PersistentVerifyCache(path);
+        assertThat(cache.size()).isEqualTo(2);
+        Verify a = (Verify) cache.get("a", Long.MAX_VALUE);
+        Verify b = (Verify) cache.get("b", Long.MAX_VALUE);
+        assertThat(a.getAddress().getAddress_line1()).isEqualTo("185 BERRY ST");
+        assertThat(a.getAddress().getAddress_zip()).isEqualTo("94107");
+        assertThat(b.getAddress().getAddress_line1()).isEqualTo("123 MAIN ST é");
+        assertThat(b.getAddress().getAddress_zip()).isNull();
+        assertThat(cache.get("c", Long.MAX_VALUE)).isNull();
+        cache.close();
+    }
+
+    @Test
+    public void it_should_treat_a_torn_record_as_a_miss() throws Exception {
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 64, 64 * 1024);
+        cache.put("a", verify("185 BERRY ST", "94107"));
+
+        // another process midway through rewriting the record: a field
+        // length (after header, 64 slots, digest, length, CRC and
+        // created-at) that runs past the end of the file
+        overwrite(64 + 64 * 16 + 32 + 4 + 4 + 8, new byte[] {(byte) 0xFF, (byte) 0xFE});
+
+        assertThat(cache.get("a", Long.MAX_VALUE)).isNull();
+        cache.close();
+    }
+
+    @Test
+    public void it_should_not_decode_a_record_that_fails_its_crc() throws Exception {
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 64, 64 * 1024);
+        cache.put("a", verify("185 BERRY ST", "94107"));
+
+        // a half-written record that would still decode: "185 BERRY ST"
+        // becomes "985 BERRY ST", after three null fields and its length
+        overwrite(64 + 64 * 16 + 32 + 4 + 4 + 8 + 3 * 2 + 2, new byte[] {'9'});
+
+        assertThat(cache.get("a", Long.MAX_VALUE)).isNull();
+        cache.close();
+    }
+
+    private void overwrite(long position, byte[] bytes) throws Exception {
+        RandomAccessFile other = new RandomAccessFile(path, "rw");
+        try {
+            other.seek(position);
+            other.write(bytes);
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void it_should_replace_and_expire_entries() throws Exception {
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 64, 64 * 1024);
+        cache.put("a", verify("1 MAIN ST", "94107"));
+        cache.put("a", verify("2 MAIN ST", "94107"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(((Verify) cache.get("a", Long.MAX_VALUE)).getAddress().getAddress_line1())
+                .isEqualTo("2 MAIN ST");
+        Thread.sleep(5);
+        assertThat(cache.get("a", 1)).isNull();
+        cache.clear();
+        assertThat(cache.get("a", Long.MAX_VALUE)).isNull();
+        cache.close();
+    }
+
+    @Test
+    public void it_should_stop_storing_when_full() throws Exception {
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 8, 64 * 1024);
+        for (int i = 0; i < 20; i++) {
+            cache.put("key" + i, verify(i + " MAIN ST", "94107"));
+        }
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(cache.get("key0", Long.MAX_VALUE)).isNotNull();
+        cache.close();
+    }
+
+    @Test
+    public void it_should_answer_verify_after_a_restart_without_calling_the_api() throws Exception {
+        Map<String, java.lang.Object> params = new HashMap<String, java.lang.Object>();
+        params.put("address_line1", "185 Berry St");
+        params.put("address_zip", "94107");
+
+        PersistentVerifyCache cache = new PersistentVerifyCache(path, 64, 64 * 1024);
+        VerifyCache.setStore(cache);
+        VerifyCache.setEnabled(true);
+        LobHttpClient.setTransport(new FakeLobTransport());
+        Address.verify(params, Lob.apiKey);
+        cache.close();
+
+        // a fresh heap cache and store, as after a deploy
+        VerifyCache.setEnabled(false);
+        cache = new PersistentVerifyCache(path);
+        VerifyCache.setStore(cache);
+        VerifyCache.setEnabled(true);
+        FakeLobTransport transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+
+        Verify verify = Address.verify(params, Lob.apiKey);
+        assertThat(verify.getAddress().getAddress_line1()).isEqualTo("185 BERRY ST");
+        assertThat(transport.getRequestCount()).isEqualTo(0);
+        assertThat(VerifyCache.storeHits()).isEqualTo(1);
+        cache.close();
+    }
+}
@@ -0,0 +1,108 @@
+package com.lob.model;
+
+import com.lob.Lob;
+import com.lob.exception.APIException;
+import com.lob.net.APIResource;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.HttpTransport;
+import com.lob.net.LobHttpClient;
+import com.lob.net.LobResponse;
+import com.lob.net.RetryPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RouteBatcherTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    @Test
+    public void it_should_merge_lookups_within_the_window() throws Exception {
+        RouteBatcher batcher = new RouteBatcher(Lob.apiKey, 50, 100);
+        List<CompletableFuture<Zip_code>> futures = new ArrayList<CompletableFuture<Zip_code>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(batcher.lookup(String.format("%05d", 10000 + i % 10)));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThat(futures.get(i).get().getZip_code()).isEqualTo(String.format("%05d", 10000 + i % 10));
+        }
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+        batcher.close();
+    }
+
+    @Test
+    public void it_should_send_a_full_batch_without_waiting() throws Exception {
+        RouteBatcher batcher = new RouteBatcher(Lob.apiKey, 10000, 3);
+        CompletableFuture<List<Zip_code>> routes = batcher.lookup(Arrays.asList("10001", "10002", "10003"));
+
+        assertThat(routes.get().size()).isEqualTo(3);
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+        batcher.close();
+    }
+
+    @Test
+    public void it_should_fail_only_the_rejected_lookup() throws Exception {
+        RouteBatcher batcher = new RouteBatcher(Lob.apiKey, 50, 100);
+        CompletableFuture<Zip_code> good = batcher.lookup("10001");
+        CompletableFuture<Zip_code> bad = batcher.lookup("99990");
+
+        assertThat(good.get().getZip_code()).isEqualTo("10001");
+        try {
+            bad.get();
+            fail("expected the invalid ZIP code to be rejected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(APIException.class);
+        }
+        batcher.close();
+    }
+
+    @Test
+    public void it_should_fail_the_whole_batch_when_lob_is_unavailable() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        LobHttpClient.setTransport(new HttpTransport() {
+            public LobResponse execute(APIResource.RequestMethod method, String url,
+                    Map<String, String> headers, Map<String, String> body) {
+                calls.incrementAndGet();
+                return new LobResponse(503, "", Collections.<String, String>emptyMap());
+            }
+        });
+        LobHttpClient.setRetryPolicy(RetryPolicy.NONE);
+        try {
+            RouteBatcher batcher = new RouteBatcher(Lob.apiKey, 10000, 3);
+            CompletableFuture<List<Zip_code>> routes = batcher.lookup(Arrays.asList("10001", "10002", "10003"));
+            try {
+                routes.get();
+                fail("expected the batch to fail");
+            } catch (ExecutionException e) {
+                assertThat(((APIException) e.getCause()).getStatusCode()).isEqualTo(503);
+            }
+            assertThat(calls.get()).isEqualTo(1);
+            batcher.close();
+        } finally {
+            LobHttpClient.setRetryPolicy(RetryPolicy.DEFAULT);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.lob.model;
+
+import com.lob.Lob;
+import com.lob.exception.APIException;
+import com.lob.net.FakeLobTransport;
+import com.lob.net.LobHttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RouteFanOutTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport(20, 0);
+        LobHttpClient.setTransport(transport);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    private static List<String> zips(int count) {
+        List<String> zips = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            zips.add(String.format("%05d", 10000 + i));
+        }
+        return zips;
+    }
+
+    @Test
+    public void it_should_split_large_lists_and_keep_the_input_order() throws Exception {
+        List<String> zips = zips(1050);
+        RouteCollection routes = Route.all(zips, Lob.apiKey);
+
+        assertThat(transport.getRequestCount()).isEqualTo(11);
+        assertThat(routes.getData()).hasSize(1050);
+        for (int i = 0; i < zips.size(); i++) {
+            assertThat(routes.getData().get(i).getZip_code()).isEqualTo(zips.get(i));
+        }
+    }
+
+    @Test
+    public void it_should_run_chunks_concurrently() throws Exception {
+        long start = System.currentTimeMillis();
+        Route.all(zips(80), 10, 8, Lob.apiKey);
+
+        // 8 chunks of 20ms each, in parallel rather than back to back
+        assertThat(System.currentTimeMillis() - start).isLessThan(120);
+    }
+
+    @Test
+    public void it_should_send_small_lists_in_one_request() throws Exception {
+        assertThat(Route.all(zips(3), Lob.apiKey).getData()).hasSize(3);
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_rethrow_the_first_failure() throws Exception {
+        List<String> zips = zips(300);
+        zips.set(150, "99990");
+        try {
+            Route.all(zips, 10, 2, Lob.apiKey);
+            fail("expected APIException");
+        } catch (APIException e) {
+            assertThat(e.getMessage()).contains("99990");
+        }
+        assertThat(transport.getRequestCount()).isLessThan(30);
+    }
+
+    @Test
+    public void it_should_reject_a_chunk_size_or_parallelism_below_one() throws Exception {
+        try {
+            Route.all(zips(3), 0, 4, Lob.apiKey);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("chunkSize");
+        }
+        try {
+            Route.all(zips(3), 10, 0, Lob.apiKey);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("parallelism");
+        }
+        assertThat(transport.getRequestCount()).isEqualTo(0);
+    }
+}
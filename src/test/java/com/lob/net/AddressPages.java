@@ -0,0 +1,38 @@
+package com.lob.net;
+
+import com.lob.exception.LobException;
+import com.lob.model.Address;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixture for the paging tests: addresses to list and a page param.
+ */
+public class AddressPages {
+
+    /**
+     * Creates count addresses named "Address i" at "i Main St" through the
+     * current transport and returns their ids in list order.
+     */
+    public static List<String> seed(int count, String apiKey) throws LobException {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> params = new HashMap<String, Object>();
+            params.put("name", "Address " + i);
+            params.put("address_line1", i + " Main St");
+            ids.add(Address.create(params, apiKey).getId());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    public static Map<String, Object> page(int count) {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("count", count);
+        return params;
+    }
+}
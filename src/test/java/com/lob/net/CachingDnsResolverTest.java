@@ -0,0 +1,63 @@
+package com.lob.net;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.DnsResolver;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.Test;
+
+public class CachingDnsResolverTest {
+
+    private static class CountingResolver implements DnsResolver {
+        final AtomicInteger lookups = new AtomicInteger();
+        volatile boolean failing;
+
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] { InetAddress.getByAddress(host, new byte[] { 10, 0, 0, 1 }) };
+        }
+    }
+
+    @Test
+    public void it_should_reuse_addresses_within_the_ttl() throws Exception {
+        CountingResolver delegate = new CountingResolver();
+        CachingDnsResolver resolver = new CachingDnsResolver(delegate, 60000);
+        resolver.resolve("api.lob.com");
+        resolver.resolve("api.lob.com");
+        resolver.resolve("api.lob.com");
+        assertThat(delegate.lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_resolve_again_after_the_ttl() throws Exception {
+        CountingResolver delegate = new CountingResolver();
+        CachingDnsResolver resolver = new CachingDnsResolver(delegate, 20);
+        resolver.resolve("api.lob.com");
+        Thread.sleep(40);
+        resolver.resolve("api.lob.com");
+        assertThat(delegate.lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_serve_stale_addresses_when_lookup_fails() throws Exception {
+        CountingResolver delegate = new CountingResolver();
+        CachingDnsResolver resolver = new CachingDnsResolver(delegate, 20);
+        InetAddress[] first = resolver.resolve("api.lob.com");
+        delegate.failing = true;
+        Thread.sleep(40);
+        assertThat(resolver.resolve("api.lob.com")).isEqualTo(first);
+    }
+
+    @Test(expected = UnknownHostException.class)
+    public void it_should_fail_for_unknown_hosts_without_a_cached_entry() throws Exception {
+        CountingResolver delegate = new CountingResolver();
+        delegate.failing = true;
+        new CachingDnsResolver(delegate, 60000).resolve("api.lob.com");
+    }
+}
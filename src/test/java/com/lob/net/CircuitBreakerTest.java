@@ -0,0 +1,152 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.CircuitOpenException;
+import com.lob.exception.LobException;
+import com.lob.exception.RateLimitException;
+import com.lob.model.Address;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static class DownTransport implements HttpTransport {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean down = true;
+        final FakeLobTransport fake = new FakeLobTransport();
+
+        public LobResponse execute(APIResource.RequestMethod method, String url,
+                Map<String, String> headers, Map<String, String> body)
+                throws APIConnectionException, APIException {
+            calls.incrementAndGet();
+            if (down) {
+                throw new APIConnectionException("connect timed out");
+            }
+            return fake.execute(method, url, headers, body);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        LobHttpClient.setRetryPolicy(RetryPolicy.NONE);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        LobHttpClient.setCircuitBreaker(null);
+        LobHttpClient.setRetryPolicy(RetryPolicy.DEFAULT);
+    }
+
+    @Test
+    public void it_should_open_after_failures_and_fail_fast() throws LobException {
+        DownTransport transport = new DownTransport();
+        LobHttpClient.setTransport(transport);
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 1.0, 10000, 4, 60000);
+        LobHttpClient.setCircuitBreaker(breaker);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                Address.list(null, null, Lob.apiKey);
+                fail("Should be an APIConnectionException");
+            } catch (APIConnectionException e) {
+                assertThat(e).isNotInstanceOf(CircuitOpenException.class);
+            }
+        }
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        try {
+            Address.list(null, null, Lob.apiKey);
+            fail("Should be a CircuitOpenException");
+        } catch (CircuitOpenException e) {
+            assertThat(transport.calls.get()).isEqualTo(2);
+        }
+        assertThat(breaker.getState("jobs")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void it_should_close_after_successful_probes() throws Exception {
+        DownTransport transport = new DownTransport();
+        LobHttpClient.setTransport(transport);
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 1.0, 10000, 2, 20);
+        LobHttpClient.setCircuitBreaker(breaker);
+
+        try {
+            Address.list(null, null, Lob.apiKey);
+        } catch (APIConnectionException e) {
+            // opens the circuit
+        }
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        transport.down = false;
+        Thread.sleep(30);
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        for (int i = 0; i < 3; i++) {
+            Address.list(null, null, Lob.apiKey);
+        }
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void it_should_not_use_up_probes_on_rate_limited_calls() throws Exception {
+        DownTransport transport = new DownTransport();
+        LobHttpClient.setTransport(transport);
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 1.0, 10000, 2, 20);
+        LobHttpClient.setCircuitBreaker(breaker);
+
+        try {
+            Address.list(null, null, Lob.apiKey);
+        } catch (APIConnectionException e) {
+            // opens the circuit
+        }
+        Thread.sleep(30);
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        RateLimiter limiter = new RateLimiter(0.001, 1, RateLimiter.Mode.FAIL_FAST, 0);
+        limiter.acquire(Lob.apiKey);
+        LobHttpClient.setRateLimiter(limiter);
+        try {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    Address.list(null, null, Lob.apiKey);
+                    fail("Should be a RateLimitException");
+                } catch (RateLimitException e) {
+                    // rejected before reaching the breaker
+                }
+            }
+        } finally {
+            LobHttpClient.setRateLimiter(null);
+        }
+
+        transport.down = false;
+        for (int i = 0; i < 3; i++) {
+            Address.list(null, null, Lob.apiKey);
+        }
+        assertThat(breaker.getState("addresses")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void it_should_open_on_slow_calls() throws LobException {
+        CircuitBreaker breaker = new CircuitBreaker(1.0, 0.5, 100, 4, 60000);
+        breaker.record("jobs", false, 500);
+        breaker.record("jobs", false, 500);
+        assertThat(breaker.getState("jobs")).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void endpoint_should_be_the_resource_segment() {
+        assertThat(LobHttpClient.endpoint("https://api.lob.com/v1/addresses/adr_1")).isEqualTo("addresses");
+        assertThat(LobHttpClient.endpoint("https://api.lob.com/v1/routes?zip_codes%5B0%5D=1")).isEqualTo("routes");
+        assertThat(LobHttpClient.endpoint("https://api.lob.com/v1/verify")).isEqualTo("verify");
+    }
+}
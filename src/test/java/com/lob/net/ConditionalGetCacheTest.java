@@ -0,0 +1,85 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.model.Address;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConditionalGetCacheTest {
+    private FakeLobTransport transport;
+    private String id;
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+        ConditionalGetCache.clear();
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Test Address");
+        id = Address.create(params, Lob.apiKey).getId();
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        ConditionalGetCache.setMaxBytes(ConditionalGetCache.DEFAULT_MAX_BYTES);
+        ConditionalGetCache.setEnabled(true);
+        ConditionalGetCache.clear();
+    }
+
+    @Test
+    public void it_should_serve_a_304_from_the_stored_object() throws Exception {
+        Address first = Address.retrieve(id, Lob.apiKey);
+        Address second = Address.retrieve(id, Lob.apiKey);
+
+        assertThat(second).isSameAs(first);
+        assertThat(transport.getRequestCount()).isEqualTo(3);
+        assertThat(ConditionalGetCache.hits()).isEqualTo(1);
+        assertThat(ConditionalGetCache.misses()).isEqualTo(1);
+        assertThat(ConditionalGetCache.bytes()).isGreaterThan(0);
+    }
+
+    @Test
+    public void it_should_refetch_a_resource_that_changed() throws Exception {
+        Address first = Address.retrieve(id, Lob.apiKey);
+        Address.delete(id, Lob.apiKey);
+        Address second = Address.retrieve(id, Lob.apiKey);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(ConditionalGetCache.hits()).isEqualTo(0);
+        assertThat(ConditionalGetCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_stay_within_its_byte_bound() throws Exception {
+        Address.retrieve(id, Lob.apiKey);
+        long size = ConditionalGetCache.bytes();
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Test Address");
+        String other = Address.create(params, Lob.apiKey).getId();
+        ConditionalGetCache.setMaxBytes(size + size / 2);
+        Address.retrieve(other, Lob.apiKey);
+
+        assertThat(ConditionalGetCache.size()).isEqualTo(1);
+        assertThat(ConditionalGetCache.bytes()).isLessThanOrEqualTo(size + size / 2);
+    }
+
+    @Test
+    public void it_should_not_send_validators_when_disabled() throws Exception {
+        ConditionalGetCache.setEnabled(false);
+        Address first = Address.retrieve(id, Lob.apiKey);
+        Address second = Address.retrieve(id, Lob.apiKey);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(ConditionalGetCache.size()).isEqualTo(0);
+    }
+}
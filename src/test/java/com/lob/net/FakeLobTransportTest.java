@@ -0,0 +1,87 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.APIException;
+import com.lob.exception.LobException;
+import com.lob.model.Address;
+import com.lob.model.AddressCollection;
+import com.lob.model.DeletedStatus;
+import com.lob.model.Route;
+import com.lob.model.RouteCollection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FakeLobTransportTest {
+    private FakeLobTransport transport;
+    private Map<String, Object> addressParams;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+
+        addressParams = new HashMap<String, Object>();
+        addressParams.put("name", "Test Address");
+        addressParams.put("address_line1", "123 Test Street");
+        addressParams.put("address_city", "San Francisco");
+        addressParams.put("address_state", "CA");
+        addressParams.put("address_zip", "94107");
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    @Test
+    public void it_should_create_and_retrieve_an_address() throws LobException {
+        Address created = Address.create(addressParams, Lob.apiKey);
+        assertThat(created.getId()).startsWith("adr_");
+        assertThat(created.getDate_created()).isNotNull();
+
+        Address retrieved = Address.retrieve(created.getId(), Lob.apiKey);
+        assertThat(retrieved.getName()).isEqualTo("Test Address");
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_page_through_a_list() throws LobException {
+        for (int i = 0; i < 12; i++) {
+            Address.create(addressParams, Lob.apiKey);
+        }
+        AddressCollection first = Address.list(null, null, Lob.apiKey);
+        assertThat(first.getData().size()).isEqualTo(10);
+        assertThat(first.getNext_url()).endsWith("count=10&offset=10");
+        AddressCollection second = Address.list(null, 10, Lob.apiKey);
+        assertThat(second.getData().size()).isEqualTo(2);
+        assertThat(second.getNext_url()).isNull();
+    }
+
+    @Test
+    public void it_should_delete_an_address() throws LobException {
+        Address created = Address.create(addressParams, Lob.apiKey);
+        DeletedStatus status = Address.delete(created.getId(), Lob.apiKey);
+        assertThat(status.getMessage()).isEqualTo("1");
+        assertThat(Address.retrieve(created.getId(), Lob.apiKey).getDeleted()).isEqualTo(1);
+    }
+
+    @Test(expected = APIException.class)
+    public void it_should_error_on_an_unknown_id() throws LobException {
+        Address.retrieve("adr_missing", Lob.apiKey);
+    }
+
+    @Test
+    public void it_should_answer_route_lookups() throws LobException {
+        RouteCollection routes = Route.all(Arrays.asList("48168", "94158"), Lob.apiKey);
+        assertThat(routes.getData().size()).isEqualTo(2);
+        assertThat(routes.getData().get(1).getZip_code()).isEqualTo("94158");
+    }
+}
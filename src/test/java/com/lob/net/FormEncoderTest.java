@@ -0,0 +1,95 @@
+package com.lob.net;
+
+import com.lob.exception.InvalidRequestException;
+
+import java.net.URLEncoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class FormEncoderTest {
+
+    private static String urlEncode(String s) throws Exception {
+        return URLEncoder.encode(s, "UTF-8");
+    }
+
+    @Test
+    public void it_should_encode_like_url_encoder() throws Exception {
+        String[] values = { "185 Berry St", "a&b=c+d/e?f", "Zoë Müller", "東京都",
+                "emoji 📬", "~!@#$%^*()_-.'\"" };
+        for (String value : values) {
+            Map<String, Object> params = new LinkedHashMap<String, Object>();
+            params.put("name", value);
+            assertThat(FormEncoder.encode(params)).isEqualTo("name=" + urlEncode(value));
+        }
+    }
+
+    @Test
+    public void it_should_flatten_nested_maps_into_bracketed_keys() throws Exception {
+        Map<String, Object> address = new LinkedHashMap<String, Object>();
+        address.put("name", "Lob HQ");
+        address.put("address_line1", "185 Berry St");
+        Map<String, Object> metadata = new LinkedHashMap<String, Object>();
+        metadata.put("tag", "q3 run");
+        address.put("metadata", metadata);
+        Map<String, Object> params = new LinkedHashMap<String, Object>();
+        params.put("to", address);
+        params.put("quantity", 2);
+        params.put("description", null);
+
+        assertThat(FormEncoder.encode(params)).isEqualTo(
+                urlEncode("to[name]") + "=Lob+HQ&"
+                + urlEncode("to[address_line1]") + "=185+Berry+St&"
+                + urlEncode("to[metadata][tag]") + "=q3+run&"
+                + "quantity=2&description=");
+
+        Map<String, String> flat = FormEncoder.flatten(params);
+        assertThat(flat).hasSize(5);
+        assertThat(flat.get("to[metadata][tag]")).isEqualTo("q3 run");
+        assertThat(flat.get("quantity")).isEqualTo("2");
+        assertThat(flat.get("description")).isEqualTo("");
+    }
+
+    @Test
+    public void it_should_encode_flat_params_as_a_body() throws Exception {
+        Map<String, String> flat = new LinkedHashMap<String, String>();
+        flat.put("to[name]", "Lob HQ");
+        flat.put("message", "Hi & bye");
+        assertThat(new String(FormEncoder.encodeFlat(flat), "US-ASCII")).isEqualTo(
+                urlEncode("to[name]") + "=Lob+HQ&message=Hi+%26+bye");
+    }
+
+    @Test
+    public void it_should_reuse_its_buffer_between_calls() throws Exception {
+        Map<String, Object> first = new LinkedHashMap<String, Object>();
+        first.put("message", "a much longer value than the next one");
+        Map<String, Object> second = new LinkedHashMap<String, Object>();
+        second.put("id", "1");
+        FormEncoder.encode(first);
+        assertThat(FormEncoder.encode(second)).isEqualTo("id=1");
+        assertThat(FormEncoder.encode(null)).isEqualTo("");
+    }
+
+    @Test
+    public void it_should_reject_nested_empty_strings_with_the_full_key() throws Exception {
+        Map<String, Object> address = new LinkedHashMap<String, Object>();
+        address.put("address_line2", "");
+        Map<String, Object> params = new LinkedHashMap<String, Object>();
+        params.put("to", address);
+        try {
+            FormEncoder.encode(params);
+            fail("expected an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(e.getParam()).isEqualTo("to[address_line2]");
+        }
+        try {
+            FormEncoder.flatten(params);
+            fail("expected an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(e.getParam()).isEqualTo("to[address_line2]");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.UncheckedLobException;
+import com.lob.model.Address;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.lob.net.AddressPages.page;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PageIteratorTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+        AddressPages.seed(25, Lob.apiKey);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    @Test
+    public void it_should_walk_every_page_in_order() throws Exception {
+        List<String> ids = Address.iterateAll(page(10), Lob.apiKey).stream()
+                .map(Address::getId).collect(Collectors.toList());
+
+        assertThat(ids).hasSize(25);
+        assertThat(ids).isEqualTo(ids.stream().sorted().collect(Collectors.toList()));
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(transport.getRequestCount()).isEqualTo(25 + 3);
+    }
+
+    @Test
+    public void it_should_prefetch_the_next_page() throws Exception {
+        Iterator<Address> addresses = Address.iterateAll(page(10), Lob.apiKey);
+        assertThat(addresses.hasNext()).isTrue();
+        Thread.sleep(100);
+
+        // first page consumed on demand, second already requested
+        assertThat(transport.getRequestCount()).isEqualTo(25 + 2);
+    }
+
+    @Test
+    public void it_should_start_at_the_given_offset() throws Exception {
+        Map<String, Object> params = page(10);
+        params.put("offset", 20);
+
+        assertThat(Address.iterateAll(params, Lob.apiKey).stream().count()).isEqualTo(5);
+    }
+
+    @Test
+    public void it_should_surface_errors_unchecked() throws Exception {
+        Iterator<Address> addresses = Address.iterateAll(page(500), Lob.apiKey);
+        try {
+            addresses.hasNext();
+            fail("expected the oversized page to be rejected");
+        } catch (UncheckedLobException e) {
+            assertThat(e.getCause().getMessage()).isNotEmpty();
+        }
+        assertThat(addresses.hasNext()).isFalse();
+    }
+}
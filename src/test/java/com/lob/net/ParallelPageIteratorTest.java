@@ -0,0 +1,112 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.UncheckedLobException;
+import com.lob.model.Address;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.lob.net.AddressPages.page;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelPageIteratorTest {
+    private List<String> ids;
+
+    @Before
+    public void setUp() throws Exception {
+        Lob.apiKey = "test_fake";
+        LobHttpClient.setTransport(new FakeLobTransport());
+        ids = AddressPages.seed(95, Lob.apiKey);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    private static List<String> collect(ParallelPageIterator<Address> addresses) {
+        try {
+            return addresses.stream().map(Address::getId).collect(Collectors.toList());
+        } finally {
+            addresses.close();
+        }
+    }
+
+    @Test
+    public void it_should_return_every_element_in_order() throws Exception {
+        assertThat(collect(Address.iterateAllParallel(page(10), 4, true, Lob.apiKey)))
+                .isEqualTo(ids);
+    }
+
+    @Test
+    public void it_should_return_every_element_once_when_unordered() throws Exception {
+        List<String> unordered = collect(Address.iterateAllParallel(page(10), 4, false, Lob.apiKey));
+
+        assertThat(unordered).hasSize(95);
+        assertThat(unordered.stream().sorted().collect(Collectors.toList())).isEqualTo(ids);
+    }
+
+    @Test
+    public void it_should_handle_a_final_full_page() throws Exception {
+        assertThat(collect(Address.iterateAllParallel(page(5), 3, true, Lob.apiKey)))
+                .isEqualTo(ids);
+    }
+
+    @Test
+    public void it_should_overlap_page_requests() throws Exception {
+        LobHttpClient.setTransport(new FakeLobTransport(30, 0));
+        AddressPages.seed(40, Lob.apiKey);
+
+        long start = System.currentTimeMillis();
+        assertThat(collect(Address.iterateAllParallel(page(5), 8, true, Lob.apiKey))).hasSize(40);
+        // 9 pages of 30ms each; sequentially this would take 270ms
+        assertThat(System.currentTimeMillis() - start).isLessThan(200);
+    }
+
+    @Test
+    public void it_should_surface_errors_unchecked() throws Exception {
+        ParallelPageIterator<Address> addresses = Address.iterateAllParallel(page(500), 2, true, Lob.apiKey);
+        try {
+            addresses.hasNext();
+            fail("expected the oversized page to be rejected");
+        } catch (UncheckedLobException e) {
+            assertThat(e.getCause().getMessage()).isNotEmpty();
+        }
+        assertThat(addresses.hasNext()).isFalse();
+    }
+
+    @Test
+    public void it_should_give_back_its_threads_while_the_buffer_is_full() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        ParallelPageIterator<Integer> numbers = new ParallelPageIterator<Integer>(
+                new PageIterator.PageLoader<Integer>() {
+                    public List<Integer> load(int offset, int count) {
+                        loads.incrementAndGet();
+                        return offset < 100 ? Collections.nCopies(count, offset)
+                                : Collections.<Integer>emptyList();
+                    }
+                }, 0, 10, 2, true);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (numbers.runningWorkers() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // the buffer filled up and the workers returned instead of waiting
+        assertThat(numbers.runningWorkers()).isEqualTo(0);
+        assertThat(loads.get()).isEqualTo(4);
+
+        int count = 0;
+        while (numbers.hasNext()) {
+            assertThat(numbers.next()).isEqualTo(count / 10 * 10);
+            count++;
+        }
+        assertThat(count).isEqualTo(100);
+    }
+}
@@ -0,0 +1,93 @@
+package com.lob.net;
+
+import com.lob.exception.LobException;
+import com.lob.exception.RateLimitException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+    @Test
+    public void it_should_allow_a_burst_then_fail_fast() throws LobException {
+        RateLimiter limiter = new RateLimiter(1, 3, RateLimiter.Mode.FAIL_FAST, 0);
+        limiter.acquire("key");
+        limiter.acquire("key");
+        limiter.acquire("key");
+        try {
+            limiter.acquire("key");
+            fail("Should be a RateLimitException");
+        } catch (RateLimitException e) {
+            assertThat(e.getMessage()).contains("rate limit");
+        }
+    }
+
+    @Test
+    public void it_should_keep_a_bucket_per_api_key() throws LobException {
+        RateLimiter limiter = new RateLimiter(1, 1, RateLimiter.Mode.FAIL_FAST, 0);
+        limiter.acquire("first");
+        limiter.acquire("second");
+    }
+
+    @Test
+    public void it_should_block_until_a_token_is_available() throws LobException {
+        RateLimiter limiter = new RateLimiter(50, 1);
+        long start = System.nanoTime();
+        limiter.acquire("key");
+        limiter.acquire("key");
+        limiter.acquire("key");
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(30);
+    }
+
+    @Test(expected = RateLimitException.class)
+    public void it_should_give_up_after_the_timeout() throws LobException {
+        RateLimiter limiter = new RateLimiter(0.1, 1, RateLimiter.Mode.TIMEOUT, 50);
+        limiter.acquire("key");
+        limiter.acquire("key");
+    }
+
+    @Test
+    public void it_should_pause_and_lower_the_burst_on_429() throws LobException {
+        RateLimiter limiter = new RateLimiter(1000, 100, RateLimiter.Mode.FAIL_FAST, 0);
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("X-Rate-Limit-Limit", "20");
+        headers.put("X-Rate-Limit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 60));
+        limiter.update("key", new LobResponse(429, "", headers));
+        assertThat(limiter.getBurst("key")).isEqualTo(20);
+        try {
+            limiter.acquire("key");
+            fail("Should be a RateLimitException");
+        } catch (RateLimitException e) {
+            // paused until reset
+        }
+        limiter.acquire("other");
+    }
+
+    @Test
+    public void it_should_lower_the_burst_of_the_reporting_key_only() throws LobException {
+        RateLimiter limiter = new RateLimiter(0.1, 5, RateLimiter.Mode.FAIL_FAST, 0);
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("X-Rate-Limit-Limit", "2");
+        limiter.update("key", new LobResponse(200, "", headers));
+
+        assertThat(limiter.getBurst("key")).isEqualTo(2);
+        assertThat(limiter.getBurst("other")).isEqualTo(5);
+        assertThat(limiter.getBurst()).isEqualTo(5);
+        limiter.acquire("key");
+        limiter.acquire("key");
+        try {
+            limiter.acquire("key");
+            fail("Should be a RateLimitException");
+        } catch (RateLimitException e) {
+            // the server's limit for this key
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("other");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.model.Country;
+import com.lob.model.CountryCollection;
+import com.lob.model.Packaging;
+import com.lob.model.ReferenceData;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReferenceDataCacheTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+        ReferenceDataCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        ReferenceDataCache.setTtl(ReferenceDataCache.DEFAULT_TTL);
+        ReferenceDataCache.setMaxEntries(ReferenceDataCache.DEFAULT_MAX_ENTRIES);
+        ReferenceDataCache.setEnabled(true);
+        ReferenceDataCache.clear();
+    }
+
+    @Test
+    public void it_should_serve_repeated_lookups_from_the_cache() throws Exception {
+        CountryCollection first = Country.all(Lob.apiKey);
+        CountryCollection second = Country.all(Lob.apiKey);
+
+        assertThat(second).isSameAs(first);
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void it_should_reload_after_the_ttl() throws Exception {
+        ReferenceDataCache.setTtl(50);
+        Country.all(Lob.apiKey);
+        Thread.sleep(80);
+        Country.all(Lob.apiKey);
+
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_refresh_in_the_background_near_expiry() throws Exception {
+        ReferenceDataCache.setTtl(400);
+        CountryCollection first = Country.all(Lob.apiKey);
+        Thread.sleep(320);
+
+        assertThat(Country.all(Lob.apiKey)).isSameAs(first);
+        Thread.sleep(50);
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+        assertThat(Country.all(Lob.apiKey)).isNotSameAs(first);
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_evict_the_least_recently_used_entry() throws Exception {
+        ReferenceDataCache.setMaxEntries(2);
+        Packaging.retrieve("1", Lob.apiKey);
+        Packaging.retrieve("2", Lob.apiKey);
+        Packaging.retrieve("1", Lob.apiKey);
+        Packaging.retrieve("3", Lob.apiKey);
+        assertThat(ReferenceDataCache.size()).isEqualTo(2);
+
+        Packaging.retrieve("1", Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(3);
+        Packaging.retrieve("2", Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void it_should_warm_up_every_catalog() throws Exception {
+        ReferenceData.warmUp(Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(5);
+
+        ReferenceData.warmUp(Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void it_should_bypass_the_cache_when_disabled() throws Exception {
+        ReferenceDataCache.setEnabled(false);
+        Country.all(Lob.apiKey);
+        Country.all(Lob.apiKey);
+
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+}
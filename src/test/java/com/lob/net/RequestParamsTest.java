@@ -0,0 +1,121 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.InvalidRequestException;
+import com.lob.model.Address;
+import com.lob.model.AddressParams;
+import com.lob.model.Check;
+import com.lob.model.CheckParams;
+import com.lob.model.JobParams;
+import com.lob.model.Postcard;
+import com.lob.model.PostcardParams;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestParamsTest {
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        LobHttpClient.setTransport(new FakeLobTransport());
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+    }
+
+    private static AddressParams hq() {
+        return new AddressParams()
+                .name("Lob HQ")
+                .address_line1("185 Berry St")
+                .address_city("San Francisco")
+                .address_state("CA")
+                .address_zip("94107");
+    }
+
+    private static Map<String, String> body(RequestParams params) throws Exception {
+        return params.toBody();
+    }
+
+    @Test
+    public void it_should_write_the_same_body_as_map_params() throws Exception {
+        Map<String, Object> to = new HashMap<String, Object>();
+        to.put("name", "Lob HQ");
+        to.put("address_line1", "185 Berry St");
+        to.put("address_city", "San Francisco");
+        to.put("address_state", "CA");
+        to.put("address_zip", "94107");
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Welcome");
+        params.put("to", to);
+        params.put("from", "adr_1");
+        params.put("message", "Hello");
+
+        PostcardParams typed = new PostcardParams()
+                .name("Welcome")
+                .to(hq())
+                .from("adr_1")
+                .message("Hello");
+
+        assertThat(body(typed)).isEqualTo(FormEncoder.flatten(params));
+    }
+
+    @Test
+    public void it_should_format_numbers_and_number_the_objects() throws Exception {
+        Map<String, String> check = body(new CheckParams().amount(2000).check_number(10001));
+        assertThat(check.get("amount")).isEqualTo("2000");
+        assertThat(check.get("check_number")).isEqualTo("10001");
+        assertThat(body(new CheckParams().amount(12.5)).get("amount")).isEqualTo("12.5");
+
+        Map<String, String> job = body(new JobParams()
+                .to("adr_1")
+                .object("obj_1")
+                .object("obj_2")
+                .quantity(3));
+        assertThat(job.get("object1")).isEqualTo("obj_1");
+        assertThat(job.get("object2")).isEqualTo("obj_2");
+        assertThat(job.get("quantity")).isEqualTo("3");
+        assertThat(job).hasSize(4);
+    }
+
+    @Test
+    public void it_should_send_null_as_empty_and_reject_empty_strings() throws Exception {
+        assertThat(body(new AddressParams().address_line2(null)).get("address_line2"))
+                .isEqualTo("");
+        try {
+            body(new PostcardParams().to(new AddressParams().address_line2("")));
+            fail("expected an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(e.getParam()).isEqualTo("to[address_line2]");
+        }
+    }
+
+    @Test
+    public void it_should_create_resources_from_typed_params() throws Exception {
+        Address address = Address.create(hq(), Lob.apiKey);
+        assertThat(address.getId()).startsWith("adr_");
+        assertThat(address.getAddress_zip()).isEqualTo("94107");
+
+        Postcard postcard = Postcard.createAsync(new PostcardParams()
+                .name("Welcome")
+                .to(hq())
+                .from(hq().name("Returns"))
+                .message("Hello"), Lob.apiKey).get();
+        assertThat(postcard.getTo().getAddress_line1()).isEqualTo("185 Berry St");
+        assertThat(postcard.getFrom().getName()).isEqualTo("Returns");
+
+        Check check = Check.create(new CheckParams()
+                .name("Refund")
+                .to(hq())
+                .amount(2000), Lob.apiKey);
+        assertThat(check.getAmount()).isEqualTo(2000.0);
+    }
+}
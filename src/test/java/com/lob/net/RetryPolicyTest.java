@@ -0,0 +1,159 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.exception.APIConnectionException;
+import com.lob.exception.APIException;
+import com.lob.exception.InvalidRequestException;
+import com.lob.exception.LobException;
+import com.lob.model.Address;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+    /* fails the first few calls, then hands over to the fake */
+    private static class FlakyTransport implements HttpTransport {
+        final FakeLobTransport fake = new FakeLobTransport();
+        final AtomicInteger failures;
+        final int status;
+        String retryAfter = "0";
+        final List<String> idempotencyKeys = Collections.synchronizedList(new ArrayList<String>());
+
+        FlakyTransport(int failures, int status) {
+            this.failures = new AtomicInteger(failures);
+            this.status = status;
+        }
+
+        public LobResponse execute(APIResource.RequestMethod method, String url,
+                Map<String, String> headers, Map<String, String> body)
+                throws APIConnectionException, APIException {
+            idempotencyKeys.add(headers.get("Idempotency-Key"));
+            if (failures.getAndDecrement() > 0) {
+                if (status == 0) {
+                    throw new APIConnectionException("connection reset");
+                }
+                Map<String, String> responseHeaders = new HashMap<String, String>();
+                responseHeaders.put("Retry-After", retryAfter);
+                return new LobResponse(status, "<html>busy</html>", responseHeaders);
+            }
+            return fake.execute(method, url, headers, body);
+        }
+    }
+
+    private Map<String, Object> addressParams;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        addressParams = new HashMap<String, Object>();
+        addressParams.put("name", "Test Address");
+        addressParams.put("address_line1", "123 Test Street");
+        addressParams.put("address_zip", "94107");
+        LobHttpClient.setRetryPolicy(new RetryPolicy(3, 1, 5));
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        LobHttpClient.setRetryPolicy(RetryPolicy.DEFAULT);
+    }
+
+    @Test
+    public void it_should_retry_server_errors_with_the_same_idempotency_key() throws LobException {
+        FlakyTransport transport = new FlakyTransport(2, 503);
+        LobHttpClient.setTransport(transport);
+        Address address = Address.create(addressParams, Lob.apiKey);
+        assertThat(address.getId()).startsWith("adr_");
+        assertThat(transport.idempotencyKeys).hasSize(3);
+        assertThat(transport.idempotencyKeys.get(0)).isNotNull();
+        assertThat(new java.util.HashSet<String>(transport.idempotencyKeys)).hasSize(1);
+    }
+
+    @Test
+    public void it_should_retry_connection_failures() throws LobException {
+        FlakyTransport transport = new FlakyTransport(2, 0);
+        LobHttpClient.setTransport(transport);
+        Address.create(addressParams, Lob.apiKey);
+        assertThat(transport.idempotencyKeys).hasSize(3);
+    }
+
+    @Test
+    public void it_should_give_up_after_max_attempts() throws LobException {
+        FlakyTransport transport = new FlakyTransport(5, 429);
+        LobHttpClient.setTransport(transport);
+        try {
+            Address.create(addressParams, Lob.apiKey);
+            fail("Should be an APIException");
+        } catch (APIException e) {
+            assertThat(e.getMessage()).isEqualTo("Lob returned HTTP 429");
+        }
+        assertThat(transport.idempotencyKeys).hasSize(3);
+    }
+
+    @Test
+    public void it_should_reject_a_missing_upload_without_sending_it() throws LobException {
+        FlakyTransport transport = new FlakyTransport(0, 0);
+        LobHttpClient.setTransport(transport);
+        addressParams.put("file", "@/no/such/file.pdf");
+        try {
+            Address.create(addressParams, Lob.apiKey);
+            fail("Should be an InvalidRequestException");
+        } catch (InvalidRequestException e) {
+            assertThat(e.getParam()).isEqualTo("file");
+        }
+        assertThat(transport.idempotencyKeys).isEmpty();
+    }
+
+    @Test
+    public void it_should_not_send_idempotency_keys_on_reads() throws LobException {
+        FlakyTransport transport = new FlakyTransport(0, 0);
+        LobHttpClient.setTransport(transport);
+        Address.list(null, null, Lob.apiKey);
+        assertThat(transport.idempotencyKeys.get(0)).isNull();
+    }
+
+    @Test
+    public void delay_should_use_full_jitter_within_the_cap() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+        for (int attempt = 1; attempt < 10; attempt++) {
+            long delay = policy.delay(attempt, null);
+            assertThat(delay).isGreaterThanOrEqualTo(0);
+            assertThat(delay).isLessThanOrEqualTo(Math.min(1000, 100L << (attempt - 1)));
+        }
+    }
+
+    @Test
+    public void delay_should_honour_retry_after() {
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("retry-after", "7");
+        LobResponse response = new LobResponse(429, "", headers);
+        assertThat(new RetryPolicy(3, 1, 10000).delay(1, response)).isEqualTo(7000);
+    }
+
+    @Test
+    public void it_should_not_wait_out_a_retry_after_longer_than_max_delay() throws LobException {
+        FlakyTransport transport = new FlakyTransport(1, 503);
+        transport.retryAfter = "3600";
+        LobHttpClient.setTransport(transport);
+        long start = System.currentTimeMillis();
+        try {
+            Address.create(addressParams, Lob.apiKey);
+            fail("Should be an APIException");
+        } catch (APIException e) {
+            assertThat(e.getMessage()).isEqualTo("Lob returned HTTP 503");
+        }
+        assertThat(transport.idempotencyKeys).hasSize(1);
+        assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+    }
+}
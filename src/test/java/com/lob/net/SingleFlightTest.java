@@ -0,0 +1,94 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.model.Address;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SingleFlightTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport(100, 0);
+        LobHttpClient.setTransport(transport);
+        LobHttpClient.setCoalesceGets(true);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        LobHttpClient.setCoalesceGets(false);
+    }
+
+    @Test
+    public void concurrent_identical_retrieves_should_share_one_call() throws Exception {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Test Address");
+        final String id = Address.create(params, Lob.apiKey).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Address>> results = new ArrayList<Future<Address>>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(new java.util.concurrent.Callable<Address>() {
+                public Address call() throws Exception {
+                    start.await();
+                    return Address.retrieve(id, Lob.apiKey);
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<Address> result : results) {
+            assertThat(result.get().getId()).isEqualTo(id);
+        }
+        executor.shutdown();
+
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void sequential_retrieves_should_not_be_served_stale() throws Exception {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "Test Address");
+        String id = Address.create(params, Lob.apiKey).getId();
+        Address.retrieve(id, Lob.apiKey);
+        Address.retrieve(id, Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test(timeout = 5000)
+    public void an_error_in_the_leader_should_not_strand_later_callers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        try {
+            singleFlight.execute("key", new APIResource.LobCall<String>() {
+                public String call() {
+                    throw new StackOverflowError();
+                }
+            });
+            fail("Should be a StackOverflowError");
+        } catch (StackOverflowError e) {
+            assertThat(singleFlight.inFlightCount()).isEqualTo(0);
+        }
+        String result = singleFlight.execute("key", new APIResource.LobCall<String>() {
+            public String call() {
+                return "fresh";
+            }
+        });
+        assertThat(result).isEqualTo("fresh");
+    }
+}
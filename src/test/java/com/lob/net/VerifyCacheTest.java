@@ -0,0 +1,97 @@
+package com.lob.net;
+
+import com.lob.Lob;
+import com.lob.model.Address;
+import com.lob.model.Verify;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VerifyCacheTest {
+    private FakeLobTransport transport;
+
+    @Before
+    public void setUp() {
+        Lob.apiKey = "test_fake";
+        transport = new FakeLobTransport();
+        LobHttpClient.setTransport(transport);
+        VerifyCache.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        LobHttpClient.setTransport(null);
+        VerifyCache.setTtl(VerifyCache.DEFAULT_TTL);
+        VerifyCache.setMaxEntries(VerifyCache.DEFAULT_MAX_ENTRIES);
+        VerifyCache.setEnabled(false);
+    }
+
+    private static Map<String, Object> address(String line1, String zip) {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("address_line1", line1);
+        params.put("address_city", "San Francisco");
+        params.put("address_state", "CA");
+        params.put("address_zip", zip);
+        return params;
+    }
+
+    @Test
+    public void it_should_normalize_case_whitespace_and_zip_plus_4() {
+        assertThat(AddressNormalizer.normalize(address(" 185  Berry st ", "94107-1741")))
+                .isEqualTo(AddressNormalizer.normalize(address("185 BERRY ST", "94107")));
+        assertThat(AddressNormalizer.normalize(address("185 Berry St", "94107")))
+                .isNotEqualTo(AddressNormalizer.normalize(address("186 Berry St", "94107")));
+        assertThat(AddressNormalizer.normalizeValue("address_zip", "941071741")).isEqualTo("94107");
+    }
+
+    @Test
+    public void it_should_verify_an_equivalent_address_once() throws Exception {
+        Verify first = Address.verify(address("185 Berry St", "94107"), Lob.apiKey);
+        Verify second = Address.verify(address("185  berry st ", "94107-1741"), Lob.apiKey);
+
+        assertThat(second).isSameAs(first);
+        assertThat(transport.getRequestCount()).isEqualTo(1);
+        assertThat(VerifyCache.hits()).isEqualTo(1);
+        assertThat(VerifyCache.misses()).isEqualTo(1);
+        assertThat(VerifyCache.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void it_should_expire_entries_after_the_ttl() throws Exception {
+        VerifyCache.setTtl(50);
+        Address.verify(address("185 Berry St", "94107"), Lob.apiKey);
+        Thread.sleep(80);
+        Address.verify(address("185 Berry St", "94107"), Lob.apiKey);
+
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void it_should_evict_the_least_recently_used_address() throws Exception {
+        VerifyCache.setMaxEntries(2);
+        Address.verify(address("1 Main St", "94107"), Lob.apiKey);
+        Address.verify(address("2 Main St", "94107"), Lob.apiKey);
+        Address.verify(address("1 Main St", "94107"), Lob.apiKey);
+        Address.verify(address("3 Main St", "94107"), Lob.apiKey);
+
+        assertThat(VerifyCache.size()).isEqualTo(2);
+        assertThat(VerifyCache.evictions()).isEqualTo(1);
+        Address.verify(address("1 Main St", "94107"), Lob.apiKey);
+        assertThat(transport.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void it_should_not_cache_when_disabled() throws Exception {
+        VerifyCache.setEnabled(false);
+        Address.verify(address("185 Berry St", "94107"), Lob.apiKey);
+        Address.verify(address("185 Berry St", "94107"), Lob.apiKey);
+
+        assertThat(transport.getRequestCount()).isEqualTo(2);
+        assertThat(VerifyCache.size()).isEqualTo(0);
+    }
+}